@@ -0,0 +1,97 @@
+package com.connectfour;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test: fixed locking strategies versus BoardAdaptive on a workload whose read/write
+ * mix changes over time, like a game's life: write-heavy opening, a mixed middle game,
+ * then mostly spectators reading.
+ *
+ * T threads share one board for the whole run; the main thread moves them through the
+ * phases. Reads are getCell + checkWinner, writes are drops (clear when the column is full).
+ * For the adaptive board the strategy it ended each phase in and how often it switched
+ * during the phase are shown, so oscillation or a wrong final strategy is visible.
+ *
+ * Usage: java com.connectfour.AdaptiveBenchmark [threads] [secondsPerPhase]
+ */
+public class AdaptiveBenchmark {
+    private static final String[] IMPLS = {"sync", "rwlock", "optimistic", "adaptive"};
+    private static final String[] PHASES = {"opening", "midgame", "spectators", "rematch"};
+    private static final int[] READ_PERCENT = {30, 80, 99, 30};
+
+    private static volatile int phase;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        System.out.println("=== Adaptive Board on a Phase-Changing Workload ===");
+        System.out.printf("Threads: %d   %ds per phase%n%n", threads, seconds);
+        StringBuilder header = new StringBuilder(String.format("%-11s", "Board"));
+        for (int p = 0; p < PHASES.length; p++) {
+            header.append(String.format(" %28s", PHASES[p] + " (" + READ_PERCENT[p] + "% reads)"));
+        }
+        System.out.println(header.append(String.format(" %14s", "overall ops/s")));
+        for (String impl : IMPLS) {
+            run(impl, threads, seconds);
+        }
+        System.out.println("\nCells are ops/sec; the adaptive row also shows its strategy at the end of each phase"
+                + " and its switches during the phase.");
+    }
+
+    private static void run(String impl, int threads, int seconds) throws InterruptedException {
+        GameBoard board = GameBoard.create(impl);
+        LongAdder[] ops = new LongAdder[PHASES.length];
+        for (int p = 0; p < ops.length; p++) ops[p] = new LongAdder();
+        String[] modes = new String[PHASES.length];
+        int[] switches = new int[PHASES.length];
+        phase = 0;
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                int p;
+                while ((p = phase) < PHASES.length) {
+                    int readPercent = READ_PERCENT[p];
+                    long n = 0;
+                    while (phase == p) {
+                        if (rnd.nextInt(100) < readPercent) {
+                            board.getCell(rnd.nextInt(Board.ROWS), rnd.nextInt(Board.COLS));
+                            board.checkWinner();
+                        } else if (board.drop(1 + (int) (n & 1), rnd.nextInt(Board.COLS)) < 0) {
+                            board.clear();
+                        }
+                        n++;
+                    }
+                    ops[p].add(n);
+                }
+            });
+            workers[t].start();
+        }
+        for (int p = 0; p < PHASES.length; p++) {
+            Thread.sleep(seconds * 1000L);
+            if (impl.equals("adaptive")) {
+                BoardAdaptive adaptive = (BoardAdaptive) board;
+                modes[p] = adaptive.mode().name().toLowerCase();
+                switches[p] = adaptive.switches();
+            }
+            phase = p + 1;
+        }
+        for (Thread w : workers) w.join();
+
+        StringBuilder row = new StringBuilder(String.format("%-11s", impl));
+        long total = 0;
+        for (int p = 0; p < PHASES.length; p++) {
+            long n = ops[p].sum();
+            total += n;
+            String cell = String.format("%,.0f", n / (double) seconds);
+            if (modes[p] != null) cell += " " + modes[p] + " +" + (switches[p] - (p > 0 ? switches[p - 1] : 0));
+            row.append(String.format(" %28s", cell));
+        }
+        row.append(String.format(" %,14.0f", total / (double) (seconds * PHASES.length)));
+        if (board instanceof BoardAdaptive) row.append("   switches: ").append(((BoardAdaptive) board).switches());
+        System.out.println(row);
+    }
+}
@@ -0,0 +1,97 @@
+package com.connectfour;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for the socket servers: a cap on open connections, what to do when it
+ * is reached, and bounded thread pools.
+ *
+ * HOW IT WORKS:
+ * - Every accepted connection takes a permit and gives it back when it ends, so threads,
+ *   sockets and buffers are bounded by maxConnections instead of by the attacker.
+ * - SHED (default): at the cap the accept loop answers "BUSY:<reason>" and closes at once.
+ *   Games in progress keep their connections and their latency; newcomers get a clear,
+ *   cheap refusal they can retry later.
+ *   BLOCK: the accept loop waits for a permit. Connections then queue in the kernel's
+ *   accept backlog (the ServerSocket backlog) and beyond it are refused by the OS:
+ *   backpressure without any work in this process.
+ * - boundedPool(): fixed number of threads and a bounded queue; a full pool rejects
+ *   (RejectedExecutionException) so the caller sheds instead of growing without limit.
+ */
+public class Admission {
+    public enum OverloadPolicy { SHED, BLOCK }
+
+    public static final String BUSY = "BUSY:";
+
+    private final int maxConnections;
+    private final OverloadPolicy policy;
+    private final Semaphore permits;
+    private final LongAdder shed = new LongAdder();
+
+    //maxConnections <= 0: unlimited (admit() always succeeds).
+    public Admission(int maxConnections, OverloadPolicy policy) {
+        this.maxConnections = maxConnections;
+        this.policy = policy;
+        this.permits = maxConnections > 0 ? new Semaphore(maxConnections) : null;
+    }
+
+    //Accept loop, before handing the connection on. false (SHED only): reject it.
+    public boolean admit() throws InterruptedException {
+        if (permits == null) return true;
+        if (policy == OverloadPolicy.BLOCK) {
+            permits.acquire();
+            return true;
+        }
+        if (permits.tryAcquire()) return true;
+        shed.increment();
+        return false;
+    }
+
+    //Exactly once per admitted connection, when it ends.
+    public void release() {
+        if (permits != null) permits.release();
+    }
+
+    public void shedOne() { shed.increment(); }
+    public long shed() { return shed.sum(); }
+    public int open() { return permits == null ? -1 : maxConnections - permits.availablePermits(); }
+    public int maxConnections() { return maxConnections; }
+
+    //Load-shedding reply: one protocol line, then close. The connection is fresh, so its send
+    //buffer is empty and the write cannot block on a slow peer.
+    public static void reject(Socket s, String reason) {
+        try {
+            OutputStream out = s.getOutputStream();
+            out.write((BUSY + reason + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException ignored) {
+        } finally {
+            try { s.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    //threads fixed, idle ones time out; queue 0 = hand-off only. Full => RejectedExecutionException.
+    public static ThreadPoolExecutor boundedPool(String name, int threads, int queue) {
+        AtomicInteger n = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                queue > 0 ? new ArrayBlockingQueue<>(queue) : new SynchronousQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
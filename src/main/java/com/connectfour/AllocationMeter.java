@@ -0,0 +1,96 @@
+package com.connectfour;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Heap allocation of the measured threads, and GC activity, over one test.
+ *
+ * HOW IT WORKS:
+ * - Each measured thread reads its own allocated-bytes counter before and after its share
+ *   of an iteration (com.sun.management.ThreadMXBean.getThreadAllocatedBytes; HotSpot keeps
+ *   it per thread from TLAB accounting, so reading it is cheap) and adds the difference,
+ *   its op count and its running time here.
+ * - reset() clears the totals and snapshots the collectors' cumulative count and time,
+ *   so the GC numbers are deltas over exactly the same span.
+ * Results: bytes per op, allocation rate per thread (bytes over summed thread time), and
+ * number/time of collections. Reports NaN bytes if the JVM cannot measure allocation.
+ */
+public class AllocationMeter {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder ops = new LongAdder();
+    private final LongAdder threadNanos = new LongAdder();
+    private long gcCountAtReset, gcMillisAtReset;
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+        if (!sun.isThreadAllocatedMemorySupported()) return null;
+        sun.setThreadAllocatedMemoryEnabled(true);
+        return sun;
+    }
+
+    public static boolean supported() {
+        return THREADS != null;
+    }
+
+    //Bytes the calling thread has allocated so far; pair two calls around the measured work.
+    public static long threadAllocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public void add(long allocatedBytes, long opCount, long nanos) {
+        bytes.add(allocatedBytes);
+        ops.add(opCount);
+        threadNanos.add(nanos);
+    }
+
+    public void reset() {
+        bytes.reset();
+        ops.reset();
+        threadNanos.reset();
+        gcCountAtReset = totalGcCount();
+        gcMillisAtReset = totalGcMillis();
+    }
+
+    public double bytesPerOp() {
+        long n = ops.sum();
+        return !supported() ? Double.NaN : n == 0 ? 0 : (double) bytes.sum() / n;
+    }
+
+    //Allocation rate of one measured thread, MB/s.
+    public double megabytesPerSecondPerThread() {
+        long nanos = threadNanos.sum();
+        return !supported() ? Double.NaN : nanos == 0 ? 0 : bytes.sum() / (nanos / 1e9) / 1e6;
+    }
+
+    public long gcCount() {
+        return totalGcCount() - gcCountAtReset;
+    }
+
+    public long gcMillis() {
+        return totalGcMillis() - gcMillisAtReset;
+    }
+
+    private static long totalGcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionCount());
+        return n;
+    }
+
+    private static long totalGcMillis() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionTime());
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f B/op, %,.1f MB/s/thread, %d GCs (%d ms)",
+                bytesPerOp(), megabytesPerSecondPerThread(), gcCount(), gcMillis());
+    }
+}
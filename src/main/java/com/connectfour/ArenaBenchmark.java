@@ -0,0 +1,144 @@
+package com.connectfour;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test: hosting millions of live games as Board objects versus one BoardArena.
+ *
+ * For each model it fills N games with a few random moves, then reports:
+ * - heap and direct memory held by the games (used heap after GC, before/after)
+ * - the pause of a full GC with all games live (the GC has to trace every Board)
+ * - ops/sec of T threads playing random moves in random games for S seconds, where a
+ *   finished game is replaced (new Board() vs arena clear), plus GC count/time meanwhile
+ *
+ * Usage: java -Xmx8g -XX:MaxDirectMemorySize=2g com.connectfour.ArenaBenchmark [games] [threads] [seconds]
+ */
+public class ArenaBenchmark {
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("=== Board Objects vs Off-Heap Arena ===");
+        System.out.printf("Games: %,d   Threads: %d   Duration: %ds%n%n", games, threads, seconds);
+        System.out.printf("%-8s %10s %10s %10s %14s %10s %10s%n",
+                "Model", "heap MB", "direct MB", "full GC ms", "ops/sec", "GCs", "GC ms");
+        runObjects(games, threads, seconds);
+        runArena(games, threads, seconds);
+    }
+
+    private static void runObjects(int games, int threads, int seconds) throws InterruptedException {
+        long heap0 = usedHeap(), direct0 = directBytes();
+        Board[] boards = new Board[games];
+        for (int i = 0; i < games; i++) {
+            boards[i] = new Board();
+            prefill(boards[i]::drop);
+        }
+        long heap = usedHeap() - heap0, direct = directBytes() - direct0;
+        long fullGc = timeFullGc();
+
+        Stats s = play(threads, seconds, rnd -> {
+            int g = rnd.nextInt(games);
+            Board b = boards[g];
+            if (b.drop(1 + rnd.nextInt(2), rnd.nextInt(Board.COLS)) < 0 || b.checkWinner() != 0) {
+                boards[g] = new Board();   // game over: a fresh object, the old one is garbage
+            }
+        });
+        print("objects", heap, direct, fullGc, s);
+    }
+
+    private static void runArena(int games, int threads, int seconds) throws InterruptedException {
+        long heap0 = usedHeap(), direct0 = directBytes();
+        BoardArena arena = new BoardArena(games);
+        for (int i = 0; i < games; i++) {
+            int slot = arena.allocate();
+            prefill((p, c) -> arena.drop(slot, p, c));
+        }
+        long heap = usedHeap() - heap0, direct = directBytes() - direct0;
+        long fullGc = timeFullGc();
+
+        Stats s = play(threads, seconds, rnd -> {
+            int g = rnd.nextInt(games);
+            if (arena.drop(g, 1 + rnd.nextInt(2), rnd.nextInt(Board.COLS)) < 0 || arena.checkWinner(g) != 0) {
+                arena.clear(g);            // game over: the slot is reused in place
+            }
+        });
+        print("arena", heap, direct, fullGc, s);
+    }
+
+    private interface Dropper { int drop(int player, int col); }
+    private interface Op { void run(ThreadLocalRandom rnd); }
+    private static final class Stats { long ops, gcCount, gcMillis; double seconds; }
+
+    //A live game has a handful of discs in it.
+    private static void prefill(Dropper d) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int moves = rnd.nextInt(12);
+        for (int m = 0; m < moves; m++) d.drop(1 + (m & 1), rnd.nextInt(Board.COLS));
+    }
+
+    private static Stats play(int threads, int seconds, Op op) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        long gcCount0 = gcCount(), gcMillis0 = gcMillis();
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                long n = 0;
+                while ((n & 1023) != 0 || System.nanoTime() < end) {
+                    op.run(rnd);
+                    n++;
+                }
+                ops.add(n);
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) w.join();
+        Stats s = new Stats();
+        s.seconds = (System.nanoTime() - start) / 1e9;
+        s.ops = ops.sum();
+        s.gcCount = gcCount() - gcCount0;
+        s.gcMillis = gcMillis() - gcMillis0;
+        return s;
+    }
+
+    private static void print(String model, long heap, long direct, long fullGc, Stats s) {
+        System.out.printf("%-8s %10.1f %10.1f %10d %,14.0f %10d %10d%n", model,
+                heap / 1048576.0, direct / 1048576.0, fullGc, s.ops / s.seconds, s.gcCount, s.gcMillis);
+    }
+
+    private static long timeFullGc() {
+        long t0 = System.nanoTime();
+        System.gc();
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long directBytes() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class))
+            if (pool.getName().equals("direct")) return pool.getMemoryUsed();
+        return 0;
+    }
+
+    private static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionCount());
+        return n;
+    }
+
+    private static long gcMillis() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionTime());
+        return n;
+    }
+}
@@ -1,3 +1,4 @@
+package com.connectfour;
 
 import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.runner.Runner;
@@ -113,6 +114,8 @@ public class BenchmarkGUI extends JFrame {
                 
                 Options opt = new OptionsBuilder()
                         .include(ConnectFourBenchmark.class.getSimpleName())
+                        .param("impl", "sync")      // the GUI shows one row per benchmark:
+                        .param("size", "6x7x4")     // classic board, synchronized only
                         .build();
 
                 publish("Starting benchmark execution...\n");
@@ -0,0 +1,1037 @@
+package com.connectfour;
+
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Web front end for the multi-threaded board benchmarks.
+ *
+ * Runs are jobs: /api/run queues one and returns its id, a single runner thread executes
+ * them one at a time in submission order, and each executes in a FORKED JVM
+ * (BenchmarkWebServer --worker ...) with fixed heap and GC flags. The worker streams its
+ * report back over stdout (TEXT/ITER/DATA/SAMPLE/GC/MARK lines), so the server's own threads, heap and JIT
+ * never share a JVM with the measured code and two users can never overlap runs.
+ *
+ * /api/stream?id=N is a server-sent event stream of the job: log text, every iteration
+ * (benchmark, impl, iteration, score), final results and status changes, each sent once
+ * as it happens. The page draws from it instead of polling. harness=jmh runs
+ * ConnectFourBenchmark through JMH instead of the quick harness, streamed the same way.
+ *
+ * The quick harness also samples throughput every SAMPLE_MILLIS (ThroughputSampler) and
+ * streams the samples with GC pauses and JIT compile time, which the page plots as a
+ * timeline per implementation. JMH runs in its own forks and has no timeline.
+ *
+ * System properties:
+ *   bench.jvmArgs  JVM flags for the worker (default DEFAULT_FORK_ARGS); add
+ *                  -XX:StartFlightRecording:... to record its FlightEvents (see FlightReport)
+ *   bench.cpus     Linux only: run the worker under taskset -c <cpus>, e.g. "2-7",
+ *                  keeping the server on the remaining cores
+ */
+public class BenchmarkWebServer {
+    private static final int PORT = 8888;
+    //HTTP handlers only. Bounded: when all threads are busy and the queue is full the request
+    //is rejected and HttpServer closes its connection, instead of a thread per request.
+    private static final ExecutorService executor = Admission.boundedPool("Http", 16, 64);
+    //An event stream holds a handler thread for the whole job; keep some for everything else.
+    private static final int MAX_STREAMS = 8;
+    private static final AtomicInteger openStreams = new AtomicInteger();
+    private static final ExecutorService jobRunner = Executors.newSingleThreadExecutor();
+    private static final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    private static final AtomicLong nextJobId = new AtomicLong(1);
+    private static volatile long latestJobId = 0;
+    private static final int MAX_QUEUED = 16;
+    private static final int MAX_JOBS_KEPT = 50;
+    private static final String DEFAULT_FORK_ARGS = "-Xms1g -Xmx1g -XX:+UseParallelGC -XX:+AlwaysPreTouch";
+    private static final long STREAM_KEEPALIVE_MILLIS = 15_000;
+
+    //One queued or finished benchmark run. Everything it reports is also kept as a list of
+    //server-sent events, so a stream opened late (or reconnecting) replays from any point.
+    static final class Job {
+        final long id;
+        final String harness;                 // quick | jmh
+        final int threads, rows, cols, connect;
+        volatile String status;               // queued | running | complete | failed
+        final StringBuffer text = new StringBuffer();
+        private final Map<String, Object> data = new LinkedHashMap<>();
+        private final Map<String, Object> alloc = new LinkedHashMap<>();   // impl -> test -> bytesPerOp, ...
+        private final List<String> events = new ArrayList<>();   // SSE frames
+
+        Job(long id, String harness, int threads, int rows, int cols, int connect) {
+            this.id = id;
+            this.harness = harness;
+            this.threads = threads;
+            this.rows = rows;
+            this.cols = cols;
+            this.connect = connect;
+            setStatus("queued");
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void put(String impl, String test, double value) {
+            ((Map<String, Object>) data.computeIfAbsent(impl, k -> new LinkedHashMap<String, Object>())).put(test, value);
+            event("result", String.format("{\"benchmark\":\"%s\",\"impl\":\"%s\",\"score\":%s}", test, impl, jsonNumber(value)));
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void putAlloc(String impl, String test, double bytesPerOp, double mbPerSecPerThread,
+                                   long gcCount, long gcMillis) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("bytesPerOp", bytesPerOp);
+            values.put("mbPerSecPerThread", mbPerSecPerThread);
+            values.put("gcCount", gcCount);
+            values.put("gcMillis", gcMillis);
+            ((Map<String, Object>) alloc.computeIfAbsent(impl, k -> new LinkedHashMap<String, Object>())).put(test, values);
+            event("alloc", "{\"benchmark\":\"" + test + "\",\"impl\":\"" + impl + "\",\"values\":" + mapToJson(values) + "}");
+        }
+
+        synchronized void log(String s) {
+            text.append(s);
+            event("log", "{\"text\":\"" + escapeJson(s) + "\"}");
+        }
+
+        //Status and its event change together, so a stream never ends before sending it.
+        synchronized void setStatus(String status) {
+            this.status = status;
+            event("status", "{\"status\":\"" + status + "\"}");
+        }
+
+        synchronized void event(String type, String json) {
+            events.add("id: " + events.size() + "\nevent: " + type + "\ndata: " + json + "\n\n");
+            notifyAll();
+        }
+
+        //Events from index from on; waits up to timeoutMillis while there are none yet.
+        synchronized List<String> eventsFrom(int from, long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            long left;
+            while (events.size() <= from && !finished() && (left = deadline - System.currentTimeMillis()) > 0) {
+                wait(left);
+            }
+            return new ArrayList<>(events.subList(Math.min(from, events.size()), events.size()));
+        }
+
+        synchronized boolean streamedAll(int sent) {
+            return finished() && sent >= events.size();
+        }
+
+        synchronized String dataJson() {
+            return mapToJson(data);
+        }
+
+        synchronized String allocJson() {
+            return mapToJson(alloc);
+        }
+
+        boolean finished() {
+            return status.equals("complete") || status.equals("failed");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].startsWith("--worker")) {
+            runWorker(args);
+            return;
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(PORT), 0);
+        server.createContext("/", new HomeHandler());
+        server.createContext("/api/run", new RunBenchmarkHandler());
+        server.createContext("/api/results", new ResultsHandler());
+        server.createContext("/api/chartdata", new ChartDataHandler());
+        server.createContext("/api/jobs", new JobsHandler());
+        server.createContext("/api/stream", new StreamHandler());
+        server.setExecutor(executor);
+        server.start();
+        System.out.println("===========================================");
+        System.out.println("Benchmark Web Server Started!");
+        System.out.println("===========================================");
+        System.out.println("Open your browser and go to:");
+        System.out.println("  http://localhost:" + PORT);
+        System.out.println("===========================================");
+    }
+
+    static class HomeHandler implements HttpHandler {
+        public void handle(HttpExchange exchange) throws IOException {
+            String html = getHtmlPage();
+            byte[] response = html.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        }
+    }
+
+    static class RunBenchmarkHandler implements HttpHandler {
+        public void handle(HttpExchange exchange) throws IOException {
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getQuery());
+            String harness = "jmh".equals(params.get("harness")) ? "jmh" : "quick";
+            int threadCount = 4;
+            int[] geometry = {Board.ROWS, Board.COLS, Board.CONNECT};
+            try {
+                if (params.containsKey("threads")) threadCount = Integer.parseInt(params.get("threads"));
+                if (params.containsKey("size")) {
+                    // "RxC" or "RxCxK"
+                    String[] parts = params.get("size").split("x");
+                    for (int i = 0; i < Math.min(parts.length, 3); i++) geometry[i] = Integer.parseInt(parts[i]);
+                }
+            } catch (NumberFormatException e) {}
+            Job job;
+            // the check and the insert are one step, so concurrent requests cannot overfill the queue
+            synchronized (jobs) {
+                if (queuedAhead(Long.MAX_VALUE) >= MAX_QUEUED) {
+                    sendJsonResponse(exchange, "{\"status\":\"rejected\",\"reason\":\"queue full\"}");
+                    return;
+                }
+                job = new Job(nextJobId.getAndIncrement(), harness, threadCount, geometry[0], geometry[1], geometry[2]);
+                jobs.put(job.id, job);
+                latestJobId = job.id;
+                jobs.keySet().removeIf(id -> id <= job.id - MAX_JOBS_KEPT && jobs.get(id).finished());
+            }
+            jobRunner.submit(() -> execute(job));
+            sendJsonResponse(exchange, String.format("{\"status\":\"queued\",\"id\":%d,\"position\":%d}",
+                    job.id, queuedAhead(job.id)));
+        }
+    }
+
+    static class ResultsHandler implements HttpHandler {
+        public void handle(HttpExchange exchange) throws IOException {
+            Job job = findJob(exchange);
+            String text;
+            if (job == null) {
+                text = "No benchmarks run yet.";
+            } else if (job.status.equals("queued")) {
+                text = "Job #" + job.id + " queued behind " + queuedAhead(job.id) + " job(s)...";
+            } else {
+                text = job.text.toString();
+            }
+            String json = String.format("{\"id\":%d,\"status\":\"%s\",\"results\":\"%s\"}",
+                job == null ? 0 : job.id, job == null ? "complete" : job.status, escapeJson(text));
+            sendJsonResponse(exchange, json);
+        }
+    }
+
+    static class ChartDataHandler implements HttpHandler {
+        public void handle(HttpExchange exchange) throws IOException {
+            Job job = findJob(exchange);
+            StringBuilder json = new StringBuilder("{");
+            json.append("\"status\":\"").append(job == null ? "complete" : job.status).append("\",");
+            json.append("\"data\":").append(job == null ? "{}" : job.dataJson()).append(",");
+            json.append("\"alloc\":").append(job == null ? "{}" : job.allocJson());
+            json.append("}");
+            sendJsonResponse(exchange, json.toString());
+        }
+    }
+
+    static class JobsHandler implements HttpHandler {
+        public void handle(HttpExchange exchange) throws IOException {
+            StringBuilder json = new StringBuilder("[");
+            for (long id : new TreeSet<>(jobs.keySet())) {
+                Job job = jobs.get(id);
+                if (job == null) continue;
+                if (json.length() > 1) json.append(",");
+                json.append(String.format("{\"id\":%d,\"status\":\"%s\",\"harness\":\"%s\",\"threads\":%d,\"size\":\"%dx%dx%d\"}",
+                        job.id, job.status, job.harness, job.threads, job.rows, job.cols, job.connect));
+            }
+            sendJsonResponse(exchange, json.append("]").toString());
+        }
+    }
+
+    //text/event-stream of one job until it finishes. Honors Last-Event-ID on reconnect.
+    static class StreamHandler implements HttpHandler {
+        public void handle(HttpExchange exchange) throws IOException {
+            if (openStreams.incrementAndGet() > MAX_STREAMS) {
+                openStreams.decrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "5");
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            Job job = findJob(exchange);
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            try (OutputStream os = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(200, 0);
+                if (job == null) {
+                    os.write("event: status\ndata: {\"status\":\"none\"}\n\n".getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                int sent = 0;
+                String lastId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+                if (lastId != null) {
+                    try { sent = Integer.parseInt(lastId.trim()) + 1; } catch (NumberFormatException ignored) {}
+                }
+                while (!job.streamedAll(sent)) {
+                    List<String> batch = job.eventsFrom(sent, STREAM_KEEPALIVE_MILLIS);
+                    if (batch.isEmpty()) {
+                        os.write(": keepalive\n\n".getBytes(StandardCharsets.UTF_8));
+                    }
+                    for (String event : batch) os.write(event.getBytes(StandardCharsets.UTF_8));
+                    sent += batch.size();
+                    os.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // the page went away; the job carries on
+            } finally {
+                openStreams.decrementAndGet();
+            }
+        }
+    }
+
+    //?id=N, or the most recently submitted job.
+    private static Job findJob(HttpExchange exchange) {
+        String id = parseQuery(exchange.getRequestURI().getQuery()).get("id");
+        try {
+            return jobs.get(id != null ? Long.parseLong(id) : latestJobId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    //Jobs still waiting that were submitted before job id.
+    private static int queuedAhead(long id) {
+        int n = 0;
+        for (Job job : jobs.values()) if (job.id < id && job.status.equals("queued")) n++;
+        return n;
+    }
+
+    // Job execution ---------------------------------------------------------
+
+    //Runs on the jobRunner thread: forks the worker JVM and collects what it streams back.
+    private static void execute(Job job) {
+        job.setStatus("running");
+        try {
+            Process process = new ProcessBuilder(workerCommand(job)).redirectErrorStream(true).start();
+            boolean done = false;
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.startsWith("TEXT ")) {
+                        job.log(unescapeLine(line.substring(5)));
+                    } else if (line.startsWith("ITER ")) {
+                        String[] f = line.split(" ");   // benchmark impl iteration warmup score
+                        job.event("iteration", String.format(
+                                "{\"benchmark\":\"%s\",\"impl\":\"%s\",\"iteration\":%s,\"warmup\":%s,\"score\":%s}",
+                                f[1], f[2], f[3], f[4].equals("1"), jsonNumber(Double.parseDouble(f[5]))));
+                    } else if (line.startsWith("DATA ")) {
+                        String[] f = line.split(" ");
+                        job.put(f[1], f[2], Double.parseDouble(f[3]));
+                    } else if (line.startsWith("ALLOC ")) {
+                        String[] f = line.split(" ");   // impl benchmark bytesPerOp mbPerSecPerThread gcCount gcMillis
+                        job.putAlloc(f[1], f[2], Double.parseDouble(f[3]), Double.parseDouble(f[4]),
+                                Long.parseLong(f[5]), Long.parseLong(f[6]));
+                    } else if (line.startsWith("SAMPLE ")) {
+                        String[] f = line.split(" ");   // impl atMillis opsPerSec jitMillis
+                        job.event("sample", String.format("{\"impl\":\"%s\",\"t\":%s,\"ops\":%s,\"jit\":%s}",
+                                f[1], f[2], f[3], f[4]));
+                    } else if (line.startsWith("GC ")) {
+                        String[] f = line.split(" ", 5);   // impl atMillis durationMillis collector cause
+                        job.event("gc", String.format("{\"impl\":\"%s\",\"t\":%s,\"ms\":%s,\"name\":\"%s\"}",
+                                f[1], f[2], f[3], escapeJson(unescapeLine(f[4]))));
+                    } else if (line.startsWith("MARK ")) {
+                        String[] f = line.split(" ", 4);   // impl atMillis label
+                        job.event("mark", String.format("{\"impl\":\"%s\",\"t\":%s,\"label\":\"%s\"}",
+                                f[1], f[2], escapeJson(f[3])));
+                    } else if (line.equals("DONE")) {
+                        done = true;
+                    } else {
+                        job.log("[worker] " + line + "\n");   // JVM warnings etc.
+                    }
+                }
+            }
+            int exit = process.waitFor();
+            if (!done) job.log("\nWorker exited with code " + exit + "\n");
+            job.setStatus(done && exit == 0 ? "complete" : "failed");
+        } catch (Exception e) {
+            job.log("Error: " + e.getMessage());
+            job.setStatus("failed");
+        }
+    }
+
+    private static List<String> workerCommand(Job job) {
+        List<String> cmd = new ArrayList<>();
+        String cpus = System.getProperty("bench.cpus");
+        if (cpus != null && !cpus.isEmpty()) Collections.addAll(cmd, "taskset", "-c", cpus);
+        cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        Collections.addAll(cmd, System.getProperty("bench.jvmArgs", DEFAULT_FORK_ARGS).trim().split("\\s+"));
+        Collections.addAll(cmd, "-cp", System.getProperty("java.class.path"), BenchmarkWebServer.class.getName(),
+                job.harness.equals("jmh") ? "--worker-jmh" : "--worker", String.valueOf(job.threads), String.valueOf(job.rows),
+                String.valueOf(job.cols), String.valueOf(job.connect));
+        return cmd;
+    }
+
+    //Worker JVM entry point: --worker|--worker-jmh threads rows cols connect.
+    //Streams the report on stdout.
+    private static void runWorker(String[] args) {
+        int threads = Integer.parseInt(args[1]);
+        int rows = Integer.parseInt(args[2]), cols = Integer.parseInt(args[3]), connect = Integer.parseInt(args[4]);
+        PrintStream out = new PrintStream(new FileOutputStream(FileDescriptor.out), true, StandardCharsets.UTF_8);
+        System.setOut(System.err);   // stray prints must not corrupt the protocol
+        Report report = new Report(out);
+        if (args[0].equals("--worker-jmh")) {
+            runJmh(threads, rows + "x" + cols + "x" + connect, report);
+        } else {
+            runBenchmarks(threads, rows, cols, connect, report);
+        }
+        out.println("DONE");
+        out.flush();
+        System.exit(0);              // the benchmark pools may still be winding down
+    }
+
+    //ConnectFourBenchmark through JMH, every iteration streamed as it completes.
+    private static void runJmh(int threads, String size, Report report) {
+        Options opt = new OptionsBuilder()
+                .include(ConnectFourBenchmark.class.getSimpleName())
+                .param("size", size)
+                .threads(threads)
+                .build();
+        try {
+            new Runner(opt, new StreamingOutputFormat(new StreamingOutputFormat.Listener() {
+                public void text(String s) {
+                    report.append(s);
+                }
+
+                public void iteration(String benchmark, String impl, int iteration, boolean warmup, double score, String unit) {
+                    report.iteration(benchmark, chartKey(impl), iteration, warmup, score);
+                }
+
+                public void result(String benchmark, String impl, double score, String unit) {
+                    report.result(benchmark, chartKey(impl), score);
+                }
+            })).run();
+        } catch (RunnerException e) {
+            report.append("Error: ").append(e.getMessage());
+        }
+    }
+
+    //Chart key for a GameBoard.create() name, so JMH and quick-harness runs chart alike.
+    private static String chartKey(String createName) {
+        for (String[] impl : IMPLEMENTATIONS) if (impl[2].equals(createName)) return impl[0];
+        return createName;
+    }
+
+    //Report of one run. In a worker every piece is forwarded to the server as soon as it is
+    //produced: TEXT <text with \\ and \n escaped>, ITER <benchmark> <impl> <iteration>
+    //<warmup 0|1> <score>, DATA <impl> <benchmark> <score>, ALLOC <impl> <benchmark> <B/op>
+    //<MB/s per thread> <GC count> <GC ms>, and the timeline: SAMPLE <impl>
+    //<ms> <ops/sec> <jit ms>, GC <impl> <ms> <duration ms> <collector (cause), escaped>,
+    //MARK <impl> <ms> <label>.
+    static final class Report {
+        private final PrintStream forward;
+
+        Report(PrintStream forward) { this.forward = forward; }
+
+        Report append(Object o) {
+            forward.println("TEXT " + escapeLine(String.valueOf(o)));
+            return this;
+        }
+
+        void iteration(String benchmark, String impl, int iteration, boolean warmup, double score) {
+            forward.println("ITER " + benchmark + " " + impl + " " + iteration + " " + (warmup ? 1 : 0) + " " + score);
+        }
+
+        void result(String benchmark, String impl, double score) {
+            forward.println("DATA " + impl + " " + benchmark + " " + score);
+        }
+
+        void data(String impl, Map<String, Double> results) {
+            for (Map.Entry<String, Double> e : results.entrySet()) result(e.getKey(), impl, e.getValue());
+        }
+
+        void alloc(String benchmark, String impl, double[] a) {
+            forward.println("ALLOC " + impl + " " + benchmark + " " + a[0] + " " + a[1] + " " + (long) a[2] + " " + (long) a[3]);
+        }
+
+        //Timeline of one implementation's run.
+        ThroughputSampler.Listener timeline(String impl) {
+            return new ThroughputSampler.Listener() {
+                public void sample(long atMillis, double opsPerSec, long jitMillis) {
+                    forward.println("SAMPLE " + impl + " " + atMillis + " " + Math.round(opsPerSec) + " " + jitMillis);
+                }
+
+                public void gc(long atMillis, long durationMillis, String collector, String cause) {
+                    forward.println("GC " + impl + " " + atMillis + " " + durationMillis + " "
+                            + escapeLine(collector + " (" + cause + ")"));
+                }
+
+                public void mark(long atMillis, String label) {
+                    forward.println("MARK " + impl + " " + atMillis + " " + label);
+                }
+            };
+        }
+    }
+
+    private static String escapeLine(String s) {
+        return s.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String unescapeLine(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()) {
+                char n = s.charAt(++i);
+                sb.append(n == 'n' ? '\n' : n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null) return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) params.put(pair.substring(0, eq), pair.substring(eq + 1));
+        }
+        return params;
+    }
+
+    private static void sendJsonResponse(HttpExchange exchange, String json) throws IOException {
+        byte[] response = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private static String escapeJson(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"")
+                .replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+    }
+
+    //JSON has no NaN or Infinity (e.g. an unsupported AllocationMeter): those become null.
+    private static String jsonNumber(double d) {
+        return Double.isFinite(d) ? String.valueOf(d) : "null";
+    }
+
+    private static String mapToJson(Map<String, Object> map) {
+        if (map.isEmpty()) return "{}";
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (!first) sb.append(",");
+            sb.append("\"").append(entry.getKey()).append("\":");
+            Object val = entry.getValue();
+            if (val instanceof String) {
+                sb.append("\"").append(escapeJson((String)val)).append("\"");
+            } else if (val instanceof Map) {
+                sb.append(mapToJson((Map<String, Object>)val));
+            } else if (val instanceof Double) {
+                sb.append(jsonNumber((Double) val));
+            } else {
+                sb.append(val);
+            }
+            first = false;
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    // chart key, display name, GameBoard.create() name; the first one is the baseline
+    private static final String[][] IMPLEMENTATIONS = {
+        {"synchronized", "Synchronized Board", "sync"},
+        {"readwritelock", "ReadWriteLock Board", "rwlock"},
+        {"flatcombining", "Flat-Combining Board", "flatcombining"},
+    };
+
+    private static void runBenchmarks(int numThreads, int rows, int cols, int connect, Report results) {
+        results.append("=== Multi-threaded Benchmark Results ===\n");
+        results.append("Threads: ").append(numThreads).append("\n");
+        results.append("Board: ").append(rows).append("x").append(cols).append(", connect ").append(connect).append("\n");
+        results.append("Platform: ").append(System.getProperty("os.name")).append("\n");
+        results.append("Each number: mean ± 95% confidence interval, measured after warmup reaches steady state\n\n");
+        
+        try {
+            Map<String, Map<String, Double>> all = new LinkedHashMap<>();
+            Map<String, Map<String, double[]>> allocs = new LinkedHashMap<>();
+            for (int i = 0; i < IMPLEMENTATIONS.length; i++) {
+                String[] impl = IMPLEMENTATIONS[i];
+                results.append(i == 0 ? "" : "\n").append("Implementation ").append(i + 1).append(": ").append(impl[1]).append("\n");
+                results.append("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
+                sampler = new ThroughputSampler(SAMPLE_MILLIS, results.timeline(impl[0])).start();
+                try {
+                    allocs.put(impl[0], new LinkedHashMap<>());
+                    all.put(impl[0], benchmarkImpl(impl[0], GameBoard.create(impl[2], rows, cols, connect), numThreads,
+                            allocs.get(impl[0]), results));
+                } finally {
+                    sampler.stop();
+                }
+                results.data(impl[0], all.get(impl[0]));
+            }
+            
+            results.append("\nPerformance Comparison (vs Synchronized)\n");
+            results.append("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
+            Map<String, Double> syncResults = all.get(IMPLEMENTATIONS[0][0]);
+            for (String test : syncResults.keySet()) {
+                double sync = syncResults.get(test);
+                results.append(String.format("%s:\n  Sync: %,.0f", test, sync));
+                for (int i = 1; i < IMPLEMENTATIONS.length; i++) {
+                    double other = all.get(IMPLEMENTATIONS[i][0]).get(test);
+                    double imp = ((other - sync) / sync) * 100;
+                    results.append(String.format("  %s: %,.0f (%+.1f%%)", IMPLEMENTATIONS[i][1], other, imp));
+                }
+                results.append("\n");
+            }
+
+            results.append("\nAllocation and GC (measurement iterations only)\n");
+            results.append("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
+            if (!AllocationMeter.supported()) results.append("(this JVM cannot measure per-thread allocation)\n");
+            results.append(String.format("%-12s %-22s %10s %14s %6s %8s\n", "Test", "Implementation", "B/op", "MB/s/thread", "GCs", "GC ms"));
+            for (String test : syncResults.keySet()) {
+                for (String[] impl : IMPLEMENTATIONS) {
+                    double[] a = allocs.get(impl[0]).get(test);
+                    results.append(String.format("%-12s %-22s %10.1f %14.1f %6d %8d\n",
+                            test, impl[1], a[0], a[1], (long) a[2], (long) a[3]));
+                }
+            }
+            
+            results.append("\nCompleted!\n");
+        } catch (Exception e) {
+            results.append("Error: ").append(e.toString());
+        }
+    }
+
+    //Each test warms up until its throughput is stable (CV < 5% over 3 iterations), then
+    //iterates until the 95% CI is within 3% of the mean or 5s pass (see SteadyState).
+    private static final SteadyState STEADY_STATE = new SteadyState(0.05, 0.03, 5_000);
+
+    //Timeline of the implementation being measured; the test threads report progress to it.
+    private static final long SAMPLE_MILLIS = 50;
+    private static volatile ThroughputSampler sampler;
+
+    //Allocation of the test threads and GC during the current test's measurement iterations.
+    private static final AllocationMeter ALLOCATION = new AllocationMeter();
+
+    private static Map<String, Double> benchmarkImpl(String name, GameBoard board, int threads,
+                                                     Map<String, double[]> allocations, Report results) throws Exception {
+        Map<String, Double> throughputs = new LinkedHashMap<>();
+        
+        results.append("1. Concurrent Drops\n");
+        measure("Drop", name, threads, () -> benchmarkDrops(board, threads), "   ", throughputs, allocations, results);
+        
+        results.append("2. Concurrent Winner Checks\n");
+        measure("CheckWinner", name, threads, () -> benchmarkWinner(board, threads), "   ", throughputs, allocations, results);
+        
+        results.append("3. Mixed Operations\n");
+        measure("Mixed", name, threads, () -> benchmarkMixed(board, threads), "   ", throughputs, allocations, results);
+
+        results.append("4. Batched Drops (one lock per batch)\n");
+        for (int size : BATCH_SIZES) {
+            measure("Batch" + size, name, threads, () -> benchmarkBatchDrops(board, threads, size),
+                    String.format("   batch %2d: ", size), throughputs, allocations, results);
+        }
+        
+        return throughputs;
+    }
+
+    //Runs one test to steady state, streaming every iteration, and reports mean and CI, plus
+    //allocation and GC over the measurement iterations (the meter restarts after each warmup one).
+    //Every iteration is also a FlightEvents.HarnessIteration for JFR recordings of the worker.
+    private static void measure(String test, String impl, int threads, SteadyState.Iteration iteration, String label,
+                                Map<String, Double> throughputs, Map<String, double[]> allocations,
+                                Report results) throws Exception {
+        sampler.mark(test);
+        ALLOCATION.reset();
+        FlightEvents.HarnessIteration[] event = new FlightEvents.HarnessIteration[1];
+        SteadyState.Result r = STEADY_STATE.measure(() -> {
+            event[0] = new FlightEvents.HarnessIteration();
+            event[0].begin();
+            return iteration.run();
+        }, (i, warmup, score) -> {
+            event[0].finish(test, impl, threads, i, warmup, score);
+            if (warmup) ALLOCATION.reset();
+            results.iteration(test, impl, i, warmup, score);
+        });
+        throughputs.put(test, r.mean);
+        double[] a = {ALLOCATION.bytesPerOp(), ALLOCATION.megabytesPerSecondPerThread(),
+                ALLOCATION.gcCount(), ALLOCATION.gcMillis()};
+        allocations.put(test, a);
+        results.alloc(test, impl, a);
+        results.append(label).append(r).append("\n");
+        results.append(label.replaceAll(".", " ")).append(ALLOCATION).append("\n");
+    }
+
+
+// multi threaded benchmark methods
+    //One iteration of each test below; SteadyState decides how many to run. An iteration is
+    //time-boxed rather than a fixed op count: short iterations are mostly thread start-up and
+    //scheduler noise, which is what kept the CI from converging.
+    private static final long ITERATION_NANOS = 100_000_000L;
+    private static final int OPS_PER_CLOCK_CHECK = 64;
+
+    //Body of one thread's share of an iteration: run until deadline, return the ops done.
+    private interface TimedWork {
+        long run(int tid, long deadline);
+    }
+
+    private static double timedIteration(int threads, TimedWork work) throws Exception {
+        // CREATE THREAD POOL - where multi-threading starts!
+        ExecutorService exec = Executors.newFixedThreadPool(threads);
+        // all threads are started before the clock does, then released together
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        List<Future<Long>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int tid = t;
+            done.add(exec.submit(() -> {
+                ready.countDown();
+                go.await();
+                long bytes = AllocationMeter.threadAllocatedBytes();
+                long began = System.nanoTime();
+                long n = work.run(tid, deadline[0]);
+                ALLOCATION.add(AllocationMeter.threadAllocatedBytes() - bytes, n, System.nanoTime() - began);
+                return n;
+            }));
+        }
+        ready.await();
+        long start = System.nanoTime();
+        deadline[0] = start + ITERATION_NANOS;   // published to the workers by go.countDown()
+        go.countDown();
+        long ops = 0;
+        for (Future<Long> f : done) ops += f.get();
+        long end = System.nanoTime();
+        exec.shutdown();
+        return ops / ((end - start) / 1e9);
+    }
+
+    private static double benchmarkDrops(GameBoard board, int threads) throws Exception {
+        return timedIteration(threads, (tid, deadline) -> {
+            ThroughputSampler progress = sampler;
+            // sweep the columns; start over only when a column is full, so on large
+            // boards the measurement is drops rather than clear()
+            int cols = board.cols();
+            long i = 0;
+            do {
+                for (int k = 0; k < OPS_PER_CLOCK_CHECK; k++, i++) {
+                    if (board.drop((tid % 2) + 1, (int) ((tid + i) % cols)) < 0) board.clear();
+                }
+                progress.add(OPS_PER_CLOCK_CHECK);
+            } while (System.nanoTime() < deadline);
+            return i;
+        });
+    }
+
+    private static final int[] BATCH_SIZES = {1, 7, 42};
+
+    private static double benchmarkBatchDrops(GameBoard board, int threads, int batchSize) throws Exception {
+        return timedIteration(threads, (tid, deadline) -> {
+            ThroughputSampler progress = sampler;
+            int[] players = new int[batchSize];
+            int[] cols = new int[batchSize];
+            int[] rows = new int[batchSize];
+            int width = board.cols();
+            long i = 0;
+            do {
+                for (int k = 0; k < batchSize; k++) {
+                    players[k] = (int) ((tid + i + k) % 2) + 1;
+                    cols[k] = (int) ((i + k) % width);
+                }
+                int winAt = board.dropBatch(players, cols, batchSize, rows, true);
+                if (winAt >= 0 || rows[batchSize - 1] < 0) board.clear();
+                i += batchSize;
+                progress.add(batchSize);
+            } while (System.nanoTime() < deadline);
+            return i;
+        });
+    }
+
+    private static double benchmarkWinner(GameBoard board, int threads) throws Exception {
+        board.clear();
+        for (int i = 0; i < Math.min(6, board.rows()); i++) board.drop((i % 2) + 1, board.cols() / 2);
+
+        return timedIteration(threads, (tid, deadline) -> {
+            ThroughputSampler progress = sampler;
+            long i = 0;
+            do {
+                for (int k = 0; k < OPS_PER_CLOCK_CHECK; k++, i++) {
+                    board.checkWinner();
+                }
+                progress.add(OPS_PER_CLOCK_CHECK);
+            } while (System.nanoTime() < deadline);
+            return i;
+        });
+    }
+
+    private static double benchmarkMixed(GameBoard board, int threads) throws Exception {
+        return timedIteration(threads, (tid, deadline) -> {
+            ThroughputSampler progress = sampler;
+            Random rand = new Random(tid);
+            long i = 0;
+            do {
+                for (int k = 0; k < OPS_PER_CLOCK_CHECK; k++, i++) {
+                    if (rand.nextDouble() < 0.8) {
+                        board.checkWinner();
+                    } else {
+                        board.drop((tid % 2) + 1, rand.nextInt(board.cols()));
+                    }
+                }
+                progress.add(OPS_PER_CLOCK_CHECK);
+            } while (System.nanoTime() < deadline);
+            return i;
+        });
+    }
+
+    private static String getHtmlPage() {
+        return "<!DOCTYPE html>\n<html>\n<head>\n" +
+            "<meta charset=\"UTF-8\">\n" +
+            "<title>Connect Four Benchmarks</title>\n" +
+            "<script src=\"https://cdn.jsdelivr.net/npm/chart.js@4.4.0/dist/chart.umd.min.js\"></script>\n" +
+            "<style>\n" +
+            "* { margin: 0; padding: 0; box-sizing: border-box; }\n" +
+            "body { font-family: 'Segoe UI', sans-serif; background: linear-gradient(135deg, #a8b1daff 0%, #764ba2 100%); min-height: 100vh; padding: 20px; }\n" +
+            ".container { max-width: 1200px; margin: 0 auto; background: white; border-radius: 15px; box-shadow: 0 20px 60px rgba(0,0,0,0.3); overflow: hidden; }\n" +
+            ".header { background: linear-gradient(135deg, #ddb3b3ff 0%, #ecb9a4ff 100%); color: white; padding: 30px; text-align: center; }\n" +
+            ".header h1 { font-size: 2.5em; margin-bottom: 10px; }\n" +
+            ".controls { padding: 30px; text-align: center; display: flex; gap: 20px; justify-content: center; align-items: center; }\n" +
+            ".btn { background: linear-gradient(135deg, #e8e8c8ff 0%, #939fcbff 100%); color: white; border: none; padding: 15px 40px; font-size: 1.1em; border-radius: 25px; cursor: pointer; font-weight: bold; }\n" +
+            ".btn:hover { transform: translateY(-2px); box-shadow: 0 10px 25px rgba(189, 197, 232, 0.4); }\n" +
+            ".btn:disabled { background: #ccc; cursor: not-allowed; }\n" +
+            "select { padding: 10px; font-size: 1em; border: 2px solid #858aa5ff; border-radius: 8px; }\n" +
+            ".status { padding: 20px 30px; background: #f8f9fa; margin: 20px 30px; border-radius: 5px; border-left: 4px solid #667eea; }\n" +
+            ".status.running { background: #fff9e6; border-left-color: #c69999ff; }\n" +
+            ".status.complete { background: #e8f5e9; border-left-color: #c0e0c7ff; }\n" +
+            ".charts { padding: 30px; display: grid; grid-template-columns: 1fr 1fr; gap: 30px; }\n" +
+            ".chart-box { background: #f8f9fa; border-radius: 10px; padding: 20px; }\n" +
+            ".chart-box h3 { text-align: center; color: #afb6d3ff; margin-bottom: 15px; }\n" +
+            ".timeline { padding: 0 30px 30px; }\n" +
+            ".chart-box h3 select { margin-left: 10px; padding: 4px; font-size: 0.8em; }\n" +
+            ".results { padding: 30px; }\n" +
+            ".results-box { background: #f8f9fa; border-radius: 10px; padding: 25px; font-family: 'Courier New', monospace; white-space: pre-wrap; font-size: 0.95em; max-height: 500px; overflow-y: auto; }\n" +
+            ".spinner { display: inline-block; width: 20px; height: 20px; border: 3px solid #f3f3f3; border-top: 3px solid #667eea; border-radius: 50%; animation: spin 1s linear infinite; margin-right: 10px; }\n" +
+            "@keyframes spin { 0% { transform: rotate(0deg); } 100% { transform: rotate(360deg); } }\n" +
+            "@media (max-width: 768px) { .charts { grid-template-columns: 1fr; } }\n" +
+            "</style>\n</head>\n<body>\n" +
+            "<div class=\"container\">\n" +
+            "<div class=\"header\"><h1>🎮 Connect Four</h1><p>Multi-threaded Performance Benchmark</p></div>\n" +
+            "<div class=\"controls\">\n" +
+            "<label>Threads:</label>\n" +
+            "<select id=\"threadCount\"><option value=\"1\">1</option><option value=\"2\">2</option><option value=\"4\" selected>4</option><option value=\"8\">8</option><option value=\"16\">16</option><option value=\"32\">32</option><option value=\"64\">64</option></select>\n" +
+            "<label>Board:</label>\n" +
+            "<select id=\"boardSize\"><option value=\"6x7x4\" selected>6x7, 4 in a row</option><option value=\"16x16x5\">16x16, 5 in a row</option><option value=\"64x64x4\">64x64</option><option value=\"256x256x4\">256x256</option><option value=\"1024x1024x4\">1024x1024</option><option value=\"4096x4096x4\">4096x4096</option></select>\n" +
+            "<label>Harness:</label>\n" +
+            "<select id=\"harness\"><option value=\"quick\" selected>Quick</option><option value=\"jmh\">JMH</option></select>\n" +
+            "<button class=\"btn\" onclick=\"runBenchmark()\">Run Benchmarks</button>\n" +
+            "</div>\n" +
+            "<div id=\"statusBar\" class=\"status\" style=\"display:none;\"><span id=\"statusText\"></span></div>\n" +
+            "<div class=\"charts\" id=\"charts\" style=\"display:none;\">\n" +
+            "<div class=\"chart-box\"><h3>Implementation Comparison</h3><canvas id=\"chart1\"></canvas></div>\n" +
+            "<div class=\"chart-box\"><h3>Performance Improvement</h3><canvas id=\"chart2\"></canvas></div>\n" +
+            "<div class=\"chart-box\"><h3>Allocation (bytes/op)</h3><canvas id=\"chart4\"></canvas></div>\n" +
+            "<div class=\"chart-box\"><h3>GC Time During Test (ms)</h3><canvas id=\"chart5\"></canvas></div>\n" +
+            "</div>\n" +
+            "<div class=\"timeline\" id=\"timelineBox\" style=\"display:none;\"><div class=\"chart-box\">" +
+            "<h3>Throughput Timeline<select id=\"timelineImpl\" onchange=\"drawTimeline()\"></select></h3><canvas id=\"chart3\"></canvas></div></div>\n" +
+            "<div class=\"results\"><div class=\"results-box\" id=\"results\">Click 'Run Benchmarks' to start.\\n\\nTests:\\n• Concurrent drop operations\\n• Concurrent winner checks\\n• Mixed read/write (80% read, 20% write)\\n• Batched drops (batch size 1 / 7 / 42)\\n\\nCompares:\\n• Synchronized (traditional)\\n• ReadWriteLock (concurrent reads)\\n• Flat combining (one combiner serves all pending requests)</div></div>\n" +
+            "</div>\n" +
+            "<script>\n" +
+            "let stream = null, chart1 = null, chart2 = null, chart3 = null, chart4 = null, chart5 = null, jobId = null, live = {}, allocLive = {}, timeline = {}, chartTimer = null;\n" +
+            "async function runBenchmark() {\n" +
+            "  const btn = event.target;\n" +
+            "  const threads = document.getElementById('threadCount').value;\n" +
+            "  const size = document.getElementById('boardSize').value;\n" +
+            "  const harness = document.getElementById('harness').value;\n" +
+            "  btn.disabled = true;\n" +
+            "  document.getElementById('statusBar').style.display = 'block';\n" +
+            "  document.getElementById('statusBar').className = 'status running';\n" +
+            "  const job = await (await fetch('/api/run?threads=' + threads + '&size=' + size + '&harness=' + harness)).json();\n" +
+            "  if (job.status !== 'queued') {\n" +
+            "    document.getElementById('statusBar').className = 'status';\n" +
+            "    document.getElementById('statusText').textContent = 'Not started: ' + (job.reason || job.status);\n" +
+            "    btn.disabled = false;\n" +
+            "    return;\n" +
+            "  }\n" +
+            "  jobId = job.id;\n" +
+            "  setStatus(job.position > 0 ? 'queued' : 'running', threads);\n" +
+            "  startStream();\n" +
+            "}\n" +
+            "function setStatus(status, threads) {\n" +
+            "  const label = status === 'queued' ? 'Job #' + jobId + ' queued...' : 'Job #' + jobId + ' running' + (threads ? ' with ' + threads + ' threads' : '') + '...';\n" +
+            "  document.getElementById('statusText').innerHTML = '<span class=\"spinner\"></span>' + label;\n" +
+            "}\n" +
+            "// one event per log chunk / iteration / result / status change; nothing is re-sent\n" +
+            "function startStream() {\n" +
+            "  if (stream) stream.close();\n" +
+            "  live = {};\n" +
+            "  timeline = {};\n" +
+            "  allocLive = {};\n" +
+            "  document.getElementById('timelineImpl').innerHTML = '';\n" +
+            "  document.getElementById('timelineBox').style.display = 'none';\n" +
+            "  const box = document.getElementById('results');\n" +
+            "  box.textContent = '';\n" +
+            "  stream = new EventSource('/api/stream?id=' + jobId);\n" +
+            "  stream.addEventListener('log', e => {\n" +
+            "    box.textContent += JSON.parse(e.data).text;\n" +
+            "    box.scrollTop = box.scrollHeight;\n" +
+            "  });\n" +
+            "  stream.addEventListener('iteration', e => {\n" +
+            "    const d = JSON.parse(e.data);\n" +
+            "    if (!d.warmup) setScore(d.impl, d.benchmark, d.score);\n" +
+            "  });\n" +
+            "  stream.addEventListener('result', e => {\n" +
+            "    const d = JSON.parse(e.data);\n" +
+            "    setScore(d.impl, d.benchmark, d.score);\n" +
+            "  });\n" +
+            "  stream.addEventListener('alloc', e => {\n" +
+            "    const d = JSON.parse(e.data);\n" +
+            "    (allocLive[d.impl] = allocLive[d.impl] || {})[d.benchmark] = d.values;\n" +
+            "    scheduleCharts();\n" +
+            "  });\n" +
+            "  stream.addEventListener('sample', e => {\n" +
+            "    const d = JSON.parse(e.data), tl = track(d.impl);\n" +
+            "    tl.ops.push({ x: d.t, y: d.ops });\n" +
+            "    if (d.jit > 0) tl.jit.push({ x: d.t, y: d.jit });\n" +
+            "    scheduleCharts();\n" +
+            "  });\n" +
+            "  stream.addEventListener('gc', e => {\n" +
+            "    const d = JSON.parse(e.data);\n" +
+            "    track(d.impl).gc.push({ x: d.t, y: d.ms, label: d.name + ': ' + d.ms + ' ms' });\n" +
+            "    scheduleCharts();\n" +
+            "  });\n" +
+            "  stream.addEventListener('mark', e => {\n" +
+            "    const d = JSON.parse(e.data);\n" +
+            "    track(d.impl).marks.push({ x: d.t, y: 0, label: d.label + ' starts' });\n" +
+            "  });\n" +
+            "  stream.addEventListener('status', e => {\n" +
+            "    const status = JSON.parse(e.data).status;\n" +
+            "    if (status === 'queued' || status === 'running') { setStatus(status); return; }\n" +
+            "    stream.close();\n" +
+            "    document.getElementById('statusBar').className = 'status ' + (status === 'complete' ? 'complete' : '');\n" +
+            "    document.getElementById('statusText').textContent = 'Job #' + jobId + (status === 'complete' ? ' complete!' : ' failed');\n" +
+            "    document.querySelector('.btn').disabled = false;\n" +
+            "    displayCharts(live);\n" +
+            "    displayAlloc(allocLive);\n" +
+            "    drawTimeline();\n" +
+            "  });\n" +
+            "}\n" +
+            "function track(impl) {\n" +
+            "  if (!timeline[impl]) {\n" +
+            "    timeline[impl] = { ops: [], jit: [], gc: [], marks: [] };\n" +
+            "    const select = document.getElementById('timelineImpl');\n" +
+            "    select.add(new Option(NAMES[impl] || impl, impl));\n" +
+            "    select.value = impl;   // follow the implementation being measured\n" +
+            "    document.getElementById('timelineBox').style.display = 'block';\n" +
+            "  }\n" +
+            "  return timeline[impl];\n" +
+            "}\n" +
+            "function setScore(impl, benchmark, score) {\n" +
+            "  (live[impl] = live[impl] || {})[benchmark] = score;\n" +
+            "  // redraw at most 4x per second however fast iterations arrive\n" +
+            "  scheduleCharts();\n" +
+            "}\n" +
+            "function scheduleCharts() {\n" +
+            "  if (!chartTimer) chartTimer = setTimeout(() => { chartTimer = null; displayCharts(live); displayAlloc(allocLive); drawTimeline(); }, 250);\n" +
+            "}\n" +
+            "// bytes/op and GC ms per test, one bar per implementation, next to the ops/sec charts\n" +
+            "function displayAlloc(data) {\n" +
+            "  const impls = Object.keys(data);\n" +
+            "  if (impls.length === 0) return;\n" +
+            "  const ops = [...new Set(impls.flatMap(k => Object.keys(data[k])))];\n" +
+            "  const sets = key => impls.map((k, i) => ({\n" +
+            "    label: NAMES[k] || k,\n" +
+            "    data: ops.map(o => data[k][o] ? data[k][o][key] : null),\n" +
+            "    backgroundColor: COLORS[i % COLORS.length]\n" +
+            "  }));\n" +
+            "  chart4 = updateBars(chart4, 'chart4', ops, sets('bytesPerOp'));\n" +
+            "  chart5 = updateBars(chart5, 'chart5', ops, sets('gcMillis'));\n" +
+            "}\n" +
+            "function updateBars(chart, canvas, labels, sets) {\n" +
+            "  if (chart && chart.data.datasets.length === sets.length) {\n" +
+            "    chart.data.labels = labels;\n" +
+            "    sets.forEach((s, i) => chart.data.datasets[i].data = s.data);\n" +
+            "    chart.update('none');\n" +
+            "    return chart;\n" +
+            "  }\n" +
+            "  if (chart) chart.destroy();\n" +
+            "  return new Chart(document.getElementById(canvas), {\n" +
+            "    type: 'bar',\n" +
+            "    data: { labels: labels, datasets: sets },\n" +
+            "    options: { responsive: true, scales: { y: { beginAtZero: true } } }\n" +
+            "  });\n" +
+            "}\n" +
+            "// ops/sec per sample window, JIT compile ms per window and GC pauses (ms) on the right axis\n" +
+            "function drawTimeline() {\n" +
+            "  const tl = timeline[document.getElementById('timelineImpl').value];\n" +
+            "  if (!tl) return;\n" +
+            "  const sets = [\n" +
+            "    { type: 'line', label: 'ops/sec', data: tl.ops, yAxisID: 'y', borderColor: COLORS[5], pointRadius: 0, borderWidth: 1 },\n" +
+            "    { type: 'bar', label: 'JIT compile ms', data: tl.jit, yAxisID: 'y2', backgroundColor: COLORS[2], barThickness: 3 },\n" +
+            "    { type: 'scatter', label: 'GC pause ms', data: tl.gc, yAxisID: 'y2', backgroundColor: COLORS[0], pointStyle: 'triangle', pointRadius: 6 },\n" +
+            "    { type: 'scatter', label: 'test start', data: tl.marks, yAxisID: 'y', backgroundColor: COLORS[3], pointStyle: 'rectRot', pointRadius: 5 }\n" +
+            "  ];\n" +
+            "  if (chart3) {\n" +
+            "    sets.forEach((s, i) => chart3.data.datasets[i].data = s.data);\n" +
+            "    chart3.update('none');\n" +
+            "    return;\n" +
+            "  }\n" +
+            "  chart3 = new Chart(document.getElementById('chart3'), {\n" +
+            "    data: { datasets: sets },\n" +
+            "    options: { responsive: true, animation: false,\n" +
+            "      scales: { x: { type: 'linear', title: { display: true, text: 'ms' } },\n" +
+            "                y: { beginAtZero: true, title: { display: true, text: 'ops/sec' } },\n" +
+            "                y2: { beginAtZero: true, position: 'right', grid: { drawOnChartArea: false }, title: { display: true, text: 'ms' } } },\n" +
+            "      plugins: { tooltip: { callbacks: { label: c => c.raw.label || (c.dataset.label + ': ' + c.formattedValue) } } } }\n" +
+            "  });\n" +
+            "}\n" +
+            "const COLORS = ['rgba(255, 99, 132, 0.7)', 'rgba(75, 192, 192, 0.7)', 'rgba(255, 206, 86, 0.7)', 'rgba(153, 102, 255, 0.7)', 'rgba(255, 159, 64, 0.7)', 'rgba(54, 162, 235, 0.7)'];\n" +
+            "const NAMES = { synchronized: 'Synchronized', readwritelock: 'ReadWriteLock', flatcombining: 'Flat Combining' };\n" +
+            "function displayCharts(data) {\n" +
+            "  const impls = Object.keys(data);\n" +
+            "  if (impls.length === 0) return;\n" +
+            "  document.getElementById('charts').style.display = 'grid';\n" +
+            "  const sync = data.synchronized || {};\n" +
+            "  const ops = [...new Set(impls.flatMap(k => Object.keys(data[k])))];\n" +
+            "  const others = impls.filter(k => k !== 'synchronized');\n" +
+            "  const sets1 = impls.map((k, i) => ({\n" +
+            "    label: NAMES[k] || k,\n" +
+            "    data: ops.map(o => data[k][o]),\n" +
+            "    backgroundColor: COLORS[i % COLORS.length]\n" +
+            "  }));\n" +
+            "  const sets2 = others.map((k, i) => ({\n" +
+            "    label: (NAMES[k] || k) + ' vs Synchronized %',\n" +
+            "    data: ops.map(o => (sync[o] && data[k][o] !== undefined) ? ((data[k][o] - sync[o]) / sync[o] * 100) : null),\n" +
+            "    backgroundColor: COLORS[(i + 1) % COLORS.length]\n" +
+            "  }));\n" +
+            "  // same series as last time: update in place instead of rebuilding the charts\n" +
+            "  if (chart1 && chart2 && chart1.data.datasets.length === sets1.length && chart2.data.datasets.length === sets2.length) {\n" +
+            "    chart1.data.labels = ops;\n" +
+            "    sets1.forEach((s, i) => chart1.data.datasets[i].data = s.data);\n" +
+            "    chart2.data.labels = ops;\n" +
+            "    sets2.forEach((s, i) => chart2.data.datasets[i].data = s.data);\n" +
+            "    chart1.update('none');\n" +
+            "    chart2.update('none');\n" +
+            "    return;\n" +
+            "  }\n" +
+            "  if (chart1) chart1.destroy();\n" +
+            "  chart1 = new Chart(document.getElementById('chart1'), {\n" +
+            "    type: 'bar',\n" +
+            "    data: { labels: ops, datasets: sets1 },\n" +
+            "    options: { responsive: true, scales: { y: { beginAtZero: true } } }\n" +
+            "  });\n" +
+            "  if (chart2) chart2.destroy();\n" +
+            "  chart2 = new Chart(document.getElementById('chart2'), {\n" +
+            "    type: 'bar',\n" +
+            "    data: { labels: ops, datasets: sets2 },\n" +
+            "    options: { responsive: true, scales: { y: { beginAtZero: true } } }\n" +
+            "  });\n" +
+            "}\n" +
+            "</script>\n</body>\n</html>";
+    }
+}
@@ -0,0 +1,145 @@
+package com.connectfour;
+
+/**
+ * Compact Connect Four position used by the AI search (standard 6 x 7 board).
+ *
+ * Each column takes ROWS + 1 bits of a long; the extra sentinel bit on top of every
+ * column keeps the shifts in alignment() from wrapping into the next column.
+ *   mask    = every occupied cell
+ *   current = cells owned by the player to move
+ * Playing a move is two long operations, so copying and searching positions is cheap
+ * compared with the int[][] grid in Board.
+ */
+public final class BitBoard {
+    public static final int ROWS = 6;
+    public static final int COLS = 7;
+    private static final int H1 = ROWS + 1;
+    private static final long BOTTOM = bottomRow();
+    private static final long FULL = BOTTOM * ((1L << ROWS) - 1);
+
+    private long current;
+    private long mask;
+    private int moves;
+
+    public BitBoard() {}
+
+    public BitBoard(BitBoard other) {
+        this.current = other.current;
+        this.mask = other.mask;
+        this.moves = other.moves;
+    }
+
+    //Builds a position from a grid accessor (row 0 = top, like Board) for the given player to move.
+    public static BitBoard fromCells(CellSource cells, int toMove) {
+        BitBoard b = new BitBoard();
+        for (int c = 0; c < COLS; c++) {
+            for (int r = ROWS - 1; r >= 0; r--) {
+                int v = cells.cell(r, c);
+                if (v == 0) break;
+                long bit = 1L << (c * H1 + (ROWS - 1 - r));
+                b.mask |= bit;
+                if (v == toMove) b.current |= bit;
+                b.moves++;
+            }
+        }
+        return b;
+    }
+
+    public interface CellSource {
+        int cell(int row, int col);
+    }
+
+    public boolean canPlay(int col) {
+        return (mask & topMask(col)) == 0;
+    }
+
+    public void play(int col) {
+        current ^= mask;
+        mask |= mask + bottomMask(col);
+        moves++;
+    }
+
+    //True if the player to move wins immediately by playing col.
+    public boolean isWinningMove(int col) {
+        long pos = current | ((mask + bottomMask(col)) & columnMask(col));
+        return alignment(pos);
+    }
+
+    public boolean isFull() {
+        return moves == ROWS * COLS;
+    }
+
+    public int moves() { return moves; }
+
+    //Unique key for the position (current + mask distinguishes the two players).
+    public long key() {
+        return current + mask;
+    }
+
+    //Static evaluation from the side to move: open winning cells of ours minus theirs.
+    public int evaluate() {
+        long mine = winningCells(current, mask);
+        long theirs = winningCells(current ^ mask, mask);
+        return Long.bitCount(mine) - Long.bitCount(theirs);
+    }
+
+    private static long winningCells(long pos, long mask) {
+        // vertical
+        long r = (pos << 1) & (pos << 2) & (pos << 3);
+
+        // horizontal
+        long p = (pos << H1) & (pos << 2 * H1);
+        r |= p & (pos << 3 * H1);
+        r |= p & (pos >>> H1);
+        p = (pos >>> H1) & (pos >>> 2 * H1);
+        r |= p & (pos << H1);
+        r |= p & (pos >>> 3 * H1);
+
+        // diagonal 1
+        p = (pos << ROWS) & (pos << 2 * ROWS);
+        r |= p & (pos << 3 * ROWS);
+        r |= p & (pos >>> ROWS);
+        p = (pos >>> ROWS) & (pos >>> 2 * ROWS);
+        r |= p & (pos << ROWS);
+        r |= p & (pos >>> 3 * ROWS);
+
+        // diagonal 2
+        p = (pos << (ROWS + 2)) & (pos << 2 * (ROWS + 2));
+        r |= p & (pos << 3 * (ROWS + 2));
+        r |= p & (pos >>> (ROWS + 2));
+        p = (pos >>> (ROWS + 2)) & (pos >>> 2 * (ROWS + 2));
+        r |= p & (pos << (ROWS + 2));
+        r |= p & (pos >>> 3 * (ROWS + 2));
+
+        return r & (FULL ^ mask);
+    }
+
+    private static boolean alignment(long pos) {
+        long m = pos & (pos >>> H1);                 // horizontal
+        if ((m & (m >>> 2 * H1)) != 0) return true;
+        m = pos & (pos >>> ROWS);                    // diagonal 1
+        if ((m & (m >>> 2 * ROWS)) != 0) return true;
+        m = pos & (pos >>> (ROWS + 2));              // diagonal 2
+        if ((m & (m >>> 2 * (ROWS + 2))) != 0) return true;
+        m = pos & (pos >>> 1);                       // vertical
+        return (m & (m >>> 2)) != 0;
+    }
+
+    private static long topMask(int col) {
+        return (1L << (ROWS - 1)) << col * H1;
+    }
+
+    private static long bottomMask(int col) {
+        return 1L << col * H1;
+    }
+
+    private static long columnMask(int col) {
+        return ((1L << ROWS) - 1) << col * H1;
+    }
+
+    private static long bottomRow() {
+        long b = 0;
+        for (int c = 0; c < COLS; c++) b |= 1L << c * H1;
+        return b;
+    }
+}
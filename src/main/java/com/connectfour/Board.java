@@ -0,0 +1,229 @@
+package com.connectfour;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+//Board for Connect Four (6 rows x 7 columns, 4 in a row by default; any geometry via the 3-arg constructor).
+//0 = empty, 1 = player1 (red), 2 = player2 (blue)
+ 
+public class Board implements GameBoard, Serializable {
+    public static final int ROWS = 6;
+    public static final int COLS = 7;
+    public static final int CONNECT = 4;
+    static final int PAD_INTS = 16;   // 64 bytes: one cache line on x86/most ARM
+    private final int rowCount, colCount, connect;
+    private final int[][] grid;
+    private int lastRow = -1, lastCol = -1;
+    private long version;   // written under the monitor, read without it through VERSION
+    private static final VarHandle VERSION;
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(Board.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Board() {
+        this(ROWS, COLS, CONNECT);
+    }
+
+    //Any geometry: rows x cols grid, connect = discs in a row needed to win.
+    public Board(int rows, int cols, int connect) {
+        this(rows, cols, connect, false);
+    }
+
+    //padded: every row array gets a cache line of unused ints at its end, so boards allocated
+    //back to back never put one board's bottom row on the same line as the next board's
+    //header/lock (see FalseSharingBenchmark). Costs 64 bytes per row.
+    public Board(int rows, int cols, int connect, boolean padded) {
+        if (rows < 1 || cols < 1 || connect < 2)
+            throw new IllegalArgumentException("Invalid geometry: " + rows + "x" + cols + ", connect " + connect);
+        this.rowCount = rows;
+        this.colCount = cols;
+        this.connect = connect;
+        this.grid = new int[rows][padded ? cols + PAD_INTS : cols];
+        clear();
+    }
+
+    public int rows() { return rowCount; }
+    public int cols() { return colCount; }
+    public int connect() { return connect; }
+
+    //Every public operation below is traced as a FlightEvents.BoardOp (free unless recorded).
+    public void clear() {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        synchronized (this) {
+            event.acquired();
+            for (int r = 0; r < rowCount; r++) 
+            Arrays.fill(grid[r], 0, colCount, 0);
+            lastRow = lastCol = -1;
+            VERSION.setRelease(this, version + 1);
+        }
+        event.finish(FlightEvents.CLEAR, this);
+    }
+
+    //Attempt to drop a disk for player in column col.
+    //Returns row index where placed, or -1 if column full/invalid.
+    public int drop(int player, int col) {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        int row;
+        synchronized (this) { // synchronized prevents data races
+            event.acquired();
+            row = dropUnlocked(player, col);
+        }
+        event.finish(FlightEvents.DROP, this);
+        return row;
+    }
+
+    //Applies n drops (players[i], cols[i]) under ONE monitor acquisition.
+    //rows[i] receives the row placed, or -1 if the column was full/invalid.
+    //If checkWin is set, stops at the first winning drop and returns its index
+    //(later ops are not applied and get -1). Returns -1 when nobody won.
+    public int dropBatch(int[] players, int[] cols, int n, int[] rows, boolean checkWin) {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        int winAt = -1;
+        synchronized (this) {
+            event.acquired();
+            for (int i = 0; i < n; i++) {
+                if (winAt >= 0) { rows[i] = -1; continue; }
+                rows[i] = dropUnlocked(players[i], cols[i]);
+                if (checkWin && rows[i] >= 0 && winnerUnlocked() != 0) winAt = i;
+            }
+        }
+        event.finish(FlightEvents.DROP_BATCH, this);
+        return winAt;
+    }
+
+    private int dropUnlocked(int player, int col) {
+        if (col < 0 || col >= colCount) return -1;
+        for (int r = rowCount - 1; r >= 0; r--) {
+            if (grid[r][col] == 0) {
+                grid[r][col] = player;
+                lastRow = r; lastCol = col;
+                VERSION.setRelease(this, version + 1);
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    public int getCell(int row, int col) {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        int cell;
+        synchronized (this) {
+            event.acquired();
+            cell = row < 0 || row >= rowCount || col < 0 || col >= colCount ? -1 : grid[row][col];
+        }
+        event.finish(FlightEvents.GET_CELL, this);
+        return cell;
+    }
+
+    public String serialize() {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        StringBuilder sb = new StringBuilder();
+        synchronized (this) {
+            event.acquired();
+            for (int r = 0; r < rowCount; r++) {
+                for (int c = 0; c < colCount; c++) {
+                    sb.append(grid[r][c]);
+                    if (c < colCount - 1) sb.append(',');
+                }
+                if (r < rowCount - 1) sb.append(';');
+            }
+        }
+        event.finish(FlightEvents.SERIALIZE, this);
+        return sb.toString();
+    }
+
+    public synchronized void deserialize(String s) {
+        // not used by server, but available
+        String[] rows = s.split(";");
+        for (int r = 0; r < Math.min(rows.length, rowCount); r++) {
+            String[] cols = rows[r].split(",");
+            for (int c = 0; c < Math.min(cols.length, colCount); c++) {
+                grid[r][c] = Integer.parseInt(cols[c]);
+            }
+        }
+        VERSION.setRelease(this, version + 1);
+    }
+
+    public long version() {
+        return (long) VERSION.getAcquire(this);
+    }
+
+    //The whole position under one monitor acquisition instead of rows * cols getCell calls.
+    public long snapshot(long[] into, long sinceVersion) {
+        if (version() == sinceVersion) return UNCHANGED;
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        long copied;
+        synchronized (this) {
+            event.acquired();
+            GameBoard.pack(grid, rowCount, colCount, into);
+            copied = version;
+        }
+        event.finish(FlightEvents.SNAPSHOT, this);
+        return copied;
+    }
+
+    // Check whether the last move produced a win for the player who occupies (lastRow,lastCol).
+    //If lastRow/lastCol are -1, return 0 (no winner).
+    //Returns 0 if no winner, otherwise returns player number (1 or 2).
+     
+    public int checkWinner() {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        int winner;
+        synchronized (this) {
+            event.acquired();
+            winner = winnerUnlocked();
+        }
+        event.finish(FlightEvents.CHECK_WINNER, this);
+        return winner;
+    }
+
+    private int winnerUnlocked() {
+        if (lastRow == -1 || lastCol == -1) return 0;
+        int player = grid[lastRow][lastCol];
+        if (player == 0) return 0;
+
+        // directions: horizontal, vertical, diag1, diag2
+        int[][] dirs = {{0,1},{1,0},{1,1},{1,-1}};
+        for (int[] d : dirs) {
+            int count = 1;
+            count += countDirection(lastRow, lastCol, d[0], d[1], player);
+            count += countDirection(lastRow, lastCol, -d[0], -d[1], player);
+            if (count >= connect) return player;
+        }
+        return 0;
+    }
+
+    private int countDirection(int r, int c, int dr, int dc, int player) {
+        int cnt = 0;
+        int rr = r + dr, cc = c + dc;
+        while (rr >= 0 && rr < rowCount && cc >= 0 && cc < colCount && grid[rr][cc] == player) {
+            cnt++; rr += dr; cc += dc;
+        }
+        return cnt;
+    }
+
+    public boolean isFull() {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        boolean full = true;
+        synchronized (this) {
+            event.acquired();
+            for (int c = 0; c < colCount; c++) if (grid[0][c] == 0) { full = false; break; }
+        }
+        event.finish(FlightEvents.IS_FULL, this);
+        return full;
+    }
+}
@@ -0,0 +1,486 @@
+package com.connectfour;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Board for Connect Four that picks its locking strategy from the workload it observes.
+ *
+ * STRATEGIES:
+ * - EXCLUSIVE:  one ReentrantLock for everything (write-heavy, or mixed but uncontended)
+ * - READ_WRITE: ReentrantReadWriteLock, readers share (mixed load, many readers)
+ * - OPTIMISTIC: StampedLock optimistic reads, validated afterwards; readers write nothing
+ *               shared at all (almost read-only load, e.g. spectators late in a game)
+ *
+ * HOW IT WORKS:
+ * - Every operation counts itself as a read or a write, and as contended if the
+ *   non-blocking attempt (tryLock / optimistic validate) failed.
+ * - About every 1024 operations one thread checks whether the WINDOW has passed; if so it
+ *   evaluates the counters and, if the same new strategy wins twice in a row, switches.
+ * - The read share picks the strategy: >= 95% OPTIMISTIC, below 60% EXCLUSIVE, in between
+ *   READ_WRITE, unless the board is EXCLUSIVE and its lock is almost never contended.
+ *
+ * SAFE HANDOVER:
+ * - The current strategy is a volatile Guard. The switch happens while holding the OLD
+ *   guard's write lock, so no reader or writer is inside the old guard, and optimistic
+ *   stamps taken before it fail validation.
+ * - Every operation re-checks the guard after acquiring it; a thread that acquired a
+ *   guard that is no longer current releases it and retries on the new one.
+ *
+ * new BoardAdaptive(rows, cols, connect, mode) pins a strategy (no adaptation), which is
+ * how the "optimistic" board is built.
+ */
+public class BoardAdaptive implements GameBoard {
+    public static final int ROWS = Board.ROWS;
+    public static final int COLS = Board.COLS;
+    public static final int CONNECT = Board.CONNECT;
+
+    public enum Mode { EXCLUSIVE, READ_WRITE, OPTIMISTIC }
+
+    private static final long WINDOW_NANOS = 20_000_000L;  // evaluate at most every 20ms
+    private static final int SAMPLE_MASK = 1023;           // ~1 op in 1024 looks at the clock
+    private static final long MIN_SAMPLE = 1000;           // ops per window worth deciding on
+    private static final double LOW_CONTENTION = 0.01;     // mixed load below this: exclusive stays
+    private static final double RW_READ_SHARE = 0.6;
+    private static final double OPTIMISTIC_READ_SHARE = 0.95;
+    private static final int[][] DIRS = {{0,1},{1,0},{1,1},{1,-1}};
+
+    private final int rowCount, colCount, connect;
+    private final int[][] grid;
+    private int lastRow = -1, lastCol = -1;
+    private long version;   // written under the write guard, read without it through VERSION
+    private static final VarHandle VERSION;
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(BoardAdaptive.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final boolean adaptive;
+    private volatile Guard guard;
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private volatile long nextDecisionNanos = System.nanoTime() + WINDOW_NANOS;
+    private Mode candidate;      // guarded by the current guard's write lock
+    private volatile int switches;
+
+    private interface CellRead { int apply(int a, int b); }
+    private final CellRead cellRead = this::cellUnlocked;
+    private final CellRead winnerRead = (a, b) -> winnerUnlocked();
+    private final CellRead fullRead = (a, b) -> fullUnlocked() ? 1 : 0;
+
+    public BoardAdaptive() {
+        this(ROWS, COLS, CONNECT);
+    }
+
+    //Any geometry: rows x cols grid, connect = discs in a row needed to win. Starts EXCLUSIVE.
+    public BoardAdaptive(int rows, int cols, int connect) {
+        this(rows, cols, connect, Mode.EXCLUSIVE, true);
+    }
+
+    //Pinned to one strategy, never switches.
+    public BoardAdaptive(int rows, int cols, int connect, Mode mode) {
+        this(rows, cols, connect, mode, false);
+    }
+
+    private BoardAdaptive(int rows, int cols, int connect, Mode mode, boolean adaptive) {
+        if (rows < 1 || cols < 1 || connect < 2)
+            throw new IllegalArgumentException("Invalid geometry: " + rows + "x" + cols + ", connect " + connect);
+        this.rowCount = rows;
+        this.colCount = cols;
+        this.connect = connect;
+        this.grid = new int[rows][cols];
+        this.adaptive = adaptive;
+        this.guard = newGuard(mode);
+    }
+
+    public int rows() { return rowCount; }
+    public int cols() { return colCount; }
+    public int connect() { return connect; }
+    public Mode mode() { return guard.mode; }
+    public int switches() { return switches; }
+
+    // Writes ---------------------------------------------------------------
+
+    public void clear() {
+        Guard g = lockWrite();
+        long stamp = g.stamp;
+        try {
+            for (int r = 0; r < rowCount; r++)
+                Arrays.fill(grid[r], 0);
+            lastRow = lastCol = -1;
+            VERSION.setRelease(this, version + 1);
+        } finally {
+            g.unlockWrite(stamp);
+        }
+        afterOp();
+    }
+
+    public int drop(int player, int col) {
+        Guard g = lockWrite();
+        long stamp = g.stamp;
+        try {
+            return dropUnlocked(player, col);
+        } finally {
+            g.unlockWrite(stamp);
+            afterOp();
+        }
+    }
+
+    public int dropBatch(int[] players, int[] cols, int n, int[] rows, boolean checkWin) {
+        Guard g = lockWrite();
+        long stamp = g.stamp;
+        try {
+            int winAt = -1;
+            for (int i = 0; i < n; i++) {
+                if (winAt >= 0) { rows[i] = -1; continue; }
+                rows[i] = dropUnlocked(players[i], cols[i]);
+                if (checkWin && rows[i] >= 0 && winnerUnlocked() != 0) winAt = i;
+            }
+            return winAt;
+        } finally {
+            g.unlockWrite(stamp);
+            afterOp();
+        }
+    }
+
+    public void deserialize(String s) {
+        Guard g = lockWrite();
+        long stamp = g.stamp;
+        try {
+            String[] rows = s.split(";");
+            for (int r = 0; r < Math.min(rows.length, rowCount); r++) {
+                String[] cols = rows[r].split(",");
+                for (int c = 0; c < Math.min(cols.length, colCount); c++) {
+                    grid[r][c] = Integer.parseInt(cols[c]);
+                }
+            }
+            VERSION.setRelease(this, version + 1);
+        } finally {
+            g.unlockWrite(stamp);
+        }
+        afterOp();
+    }
+
+    //Acquires the current guard exclusively; g.stamp holds the stamp until unlockWrite.
+    private Guard lockWrite() {
+        writes.increment();
+        while (true) {
+            Guard g = guard;
+            long stamp = g.tryWrite();
+            if (stamp == 0) {
+                contended.increment();
+                stamp = g.write();
+            }
+            if (guard == g) {
+                g.stamp = stamp;   // only the write holder touches it
+                return g;
+            }
+            g.unlockWrite(stamp);  // switched while we waited
+        }
+    }
+
+    // Reads ----------------------------------------------------------------
+
+    public int getCell(int row, int col) {
+        if (row < 0 || row >= rowCount || col < 0 || col >= colCount) return -1;
+        return read(cellRead, row, col);
+    }
+
+    public int checkWinner() {
+        return read(winnerRead, 0, 0);
+    }
+
+    public boolean isFull() {
+        return read(fullRead, 0, 0) != 0;
+    }
+
+    public String serialize() {
+        reads.increment();
+        Guard g = guard;
+        if (g.mode == Mode.OPTIMISTIC) {
+            StampedLock sl = ((OptimisticGuard) g).lock;
+            long stamp = sl.tryOptimisticRead();
+            if (stamp != 0) {
+                String s = serializeUnlocked();
+                if (sl.validate(stamp) && guard == g) {
+                    afterOp();
+                    return s;
+                }
+            }
+            contended.increment();
+        }
+        while (true) {
+            g = guard;
+            long stamp = acquireRead(g);
+            if (guard != g) {              // switched while we waited
+                g.unlockRead(stamp);
+                continue;
+            }
+            try {
+                return serializeUnlocked();
+            } finally {
+                g.unlockRead(stamp);
+                afterOp();
+            }
+        }
+    }
+
+    public long version() {
+        return (long) VERSION.getAcquire(this);
+    }
+
+    //Like serialize: OPTIMISTIC copies without locking and keeps the copy only if validated.
+    public long snapshot(long[] into, long sinceVersion) {
+        if (version() == sinceVersion) return UNCHANGED;
+        reads.increment();
+        Guard g = guard;
+        if (g.mode == Mode.OPTIMISTIC) {
+            StampedLock sl = ((OptimisticGuard) g).lock;
+            long stamp = sl.tryOptimisticRead();
+            if (stamp != 0) {
+                long copied = version();
+                GameBoard.pack(grid, rowCount, colCount, into);
+                if (sl.validate(stamp) && guard == g) {
+                    afterOp();
+                    return copied;
+                }
+            }
+            contended.increment();
+        }
+        while (true) {
+            g = guard;
+            long stamp = acquireRead(g);
+            if (guard != g) {
+                g.unlockRead(stamp);
+                continue;
+            }
+            try {
+                GameBoard.pack(grid, rowCount, colCount, into);
+                return version;
+            } finally {
+                g.unlockRead(stamp);
+                afterOp();
+            }
+        }
+    }
+
+    private int read(CellRead op, int a, int b) {
+        reads.increment();
+        Guard g = guard;
+        if (g.mode == Mode.OPTIMISTIC) {
+            StampedLock sl = ((OptimisticGuard) g).lock;
+            long stamp = sl.tryOptimisticRead();
+            if (stamp != 0) {
+                int result = op.apply(a, b);   // may see a torn board; discarded unless validated
+                if (sl.validate(stamp) && guard == g) {
+                    afterOp();
+                    return result;
+                }
+            }
+            contended.increment();
+        }
+        while (true) {
+            g = guard;
+            long stamp = acquireRead(g);
+            if (guard != g) {
+                g.unlockRead(stamp);
+                continue;
+            }
+            try {
+                return op.apply(a, b);
+            } finally {
+                g.unlockRead(stamp);
+                afterOp();
+            }
+        }
+    }
+
+    //Pessimistic shared acquisition of g; the caller re-checks that g is still current.
+    private long acquireRead(Guard g) {
+        long stamp = g.tryRead();
+        if (stamp == 0) {
+            contended.increment();
+            stamp = g.read();
+        }
+        return stamp;
+    }
+
+    // Adaptation -----------------------------------------------------------
+
+    private void afterOp() {
+        if (!adaptive || (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) != 0) return;
+        long now = System.nanoTime();
+        if (now < nextDecisionNanos) return;
+        Guard g = guard;
+        long stamp = g.tryWrite();
+        if (stamp == 0) return;                 // busy: someone else will decide later
+        try {
+            if (guard != g || now < nextDecisionNanos) return;
+            nextDecisionNanos = now + WINDOW_NANOS;
+            Mode want = choose(reads.sumThenReset(), writes.sumThenReset(), contended.sumThenReset(), g.mode);
+            if (want == g.mode) {
+                candidate = null;
+            } else if (want != candidate) {
+                candidate = want;               // hysteresis: must win two windows in a row
+            } else {
+                candidate = null;
+                guard = newGuard(want);         // published while we hold the old write lock
+                switches++;
+            }
+        } finally {
+            g.unlockWrite(stamp);
+        }
+    }
+
+    //The read/write mix decides first. Contention only matters for a mixed load, and only to
+    //keep an EXCLUSIVE board exclusive: the shared-read strategies rarely fail a try-acquire,
+    //so their low contention says nothing about how EXCLUSIVE would fare (demoting on it made
+    //read-heavy boards oscillate, or settle on EXCLUSIVE).
+    private static Mode choose(long r, long w, long c, Mode current) {
+        long ops = r + w;
+        if (ops < MIN_SAMPLE) return current;
+        double contention = (double) c / ops;
+        double readShare = (double) r / ops;
+        if (readShare >= OPTIMISTIC_READ_SHARE) return Mode.OPTIMISTIC;   // cheapest reads, contended or not
+        if (readShare < RW_READ_SHARE) return Mode.EXCLUSIVE;
+        return current == Mode.EXCLUSIVE && contention < LOW_CONTENTION ? Mode.EXCLUSIVE : Mode.READ_WRITE;
+    }
+
+    // Guards ---------------------------------------------------------------
+
+    private static Guard newGuard(Mode mode) {
+        switch (mode) {
+            case READ_WRITE: return new ReadWriteGuard();
+            case OPTIMISTIC: return new OptimisticGuard();
+            default: return new ExclusiveGuard();
+        }
+    }
+
+    //One locking strategy. Stamps of 0 mean "not acquired"; lock-based guards use 1.
+    private abstract static class Guard {
+        final Mode mode;
+        long stamp;              // write stamp, only touched by the write holder
+
+        Guard(Mode mode) { this.mode = mode; }
+
+        abstract long tryWrite();
+        abstract long write();
+        abstract void unlockWrite(long stamp);
+        abstract long tryRead();
+        abstract long read();
+        abstract void unlockRead(long stamp);
+    }
+
+    private static final class ExclusiveGuard extends Guard {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        ExclusiveGuard() { super(Mode.EXCLUSIVE); }
+
+        long tryWrite() { return lock.tryLock() ? 1 : 0; }
+        long write() { lock.lock(); return 1; }
+        void unlockWrite(long stamp) { lock.unlock(); }
+        long tryRead() { return tryWrite(); }
+        long read() { return write(); }
+        void unlockRead(long stamp) { lock.unlock(); }
+    }
+
+    private static final class ReadWriteGuard extends Guard {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        ReadWriteGuard() { super(Mode.READ_WRITE); }
+
+        long tryWrite() { return lock.writeLock().tryLock() ? 1 : 0; }
+        long write() { lock.writeLock().lock(); return 1; }
+        void unlockWrite(long stamp) { lock.writeLock().unlock(); }
+        long tryRead() { return lock.readLock().tryLock() ? 1 : 0; }
+        long read() { lock.readLock().lock(); return 1; }
+        void unlockRead(long stamp) { lock.readLock().unlock(); }
+    }
+
+    private static final class OptimisticGuard extends Guard {
+        final StampedLock lock = new StampedLock();
+
+        OptimisticGuard() { super(Mode.OPTIMISTIC); }
+
+        long tryWrite() { return lock.tryWriteLock(); }
+        long write() { return lock.writeLock(); }
+        void unlockWrite(long stamp) { lock.unlockWrite(stamp); }
+        long tryRead() { return lock.tryReadLock(); }
+        long read() { return lock.readLock(); }
+        void unlockRead(long stamp) { lock.unlockRead(stamp); }
+    }
+
+    // Unlocked helpers (caller holds the guard, or validates an optimistic stamp) ----
+
+    private int dropUnlocked(int player, int col) {
+        if (col < 0 || col >= colCount) return -1;
+        for (int r = rowCount - 1; r >= 0; r--) {
+            if (grid[r][col] == 0) {
+                grid[r][col] = player;
+                lastRow = r;
+                lastCol = col;
+                VERSION.setRelease(this, version + 1);
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    private int cellUnlocked(int row, int col) {
+        return grid[row][col];
+    }
+
+    private boolean fullUnlocked() {
+        for (int c = 0; c < colCount; c++)
+            if (grid[0][c] == 0) return false;
+        return true;
+    }
+
+    private String serializeUnlocked() {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < rowCount; r++) {
+            for (int c = 0; c < colCount; c++) {
+                sb.append(grid[r][c]);
+                if (c < colCount - 1) sb.append(',');
+            }
+            if (r < rowCount - 1) sb.append(';');
+        }
+        return sb.toString();
+    }
+
+    private int winnerUnlocked() {
+        int row = lastRow, col = lastCol;   // read once: an optimistic reader may race a drop
+        if (row < 0 || col < 0) return 0;
+        int player = grid[row][col];
+        if (player == 0) return 0;
+
+        for (int[] d : DIRS) {
+            int count = 1;
+            count += countDirection(row, col, d[0], d[1], player);
+            count += countDirection(row, col, -d[0], -d[1], player);
+            if (count >= connect) return player;
+        }
+        return 0;
+    }
+
+    private int countDirection(int r, int c, int dr, int dc, int player) {
+        int cnt = 0;
+        int rr = r + dr, cc = c + dc;
+        while (rr >= 0 && rr < rowCount && cc >= 0 && cc < colCount && grid[rr][cc] == player) {
+            cnt++;
+            rr += dr;
+            cc += dc;
+        }
+        return cnt;
+    }
+}
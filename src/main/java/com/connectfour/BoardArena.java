@@ -0,0 +1,351 @@
+package com.connectfour;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Off-heap store for many boards of one geometry, addressed by slot index.
+ *
+ * LAYOUT: one direct ByteBuffer, one fixed-size record per slot:
+ *   int lock | int lastRow | int lastCol | int moves | int version | cells, 2 bits each, row-major
+ * A 6x7 game takes 20 + 11 bytes, padded to 32; a Board object with its int[][] is ~300
+ * bytes on heap and 8 objects the GC has to trace. The arena is one object, whatever
+ * the number of games.
+ *
+ * CONCURRENCY:
+ * - Every slot has its own spin lock word in its record (CAS through a VarHandle view of
+ *   the buffer), so games never contend with each other and no lock objects live on heap.
+ * - Cell accesses happen under that lock; acquire/release on the lock word orders them.
+ * - The version word is written with release and read with acquire semantics, so
+ *   version() and an unchanged snapshot() need no lock.
+ * - The cells are already in GameBoard's snapshot layout, so a snapshot is a byte copy.
+ *
+ * view(slot) wraps a slot as a GameBoard for code written against the interface.
+ */
+public class BoardArena {
+    private static final VarHandle INT =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final int LOCK = 0, LAST_ROW = 4, LAST_COL = 8, MOVES = 12, VERSION = 16, CELLS = 20;
+    private static final int SPINS_BEFORE_YIELD = 256;
+    private static final int[][] DIRS = {{0,1},{1,0},{1,1},{1,-1}};
+
+    private final int rowCount, colCount, connect;
+    private final int slots, stride;
+    private final ByteBuffer buf;
+
+    private final int[] freeSlots;   // stack of unallocated slots, guarded by itself
+    private int freeTop;
+
+    public BoardArena(int slots) {
+        this(slots, Board.ROWS, Board.COLS, Board.CONNECT);
+    }
+
+    public BoardArena(int slots, int rows, int cols, int connect) {
+        if (rows < 1 || cols < 1 || connect < 2)
+            throw new IllegalArgumentException("Invalid geometry: " + rows + "x" + cols + ", connect " + connect);
+        this.rowCount = rows;
+        this.colCount = cols;
+        this.connect = connect;
+        this.stride = (CELLS + (rows * cols + 3) / 4 + 7) & ~7;   // 8-aligned keeps the lock word aligned
+        if (slots < 1 || (long) slots * stride > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Arena of " + slots + " x " + stride + " bytes does not fit one buffer");
+        this.slots = slots;
+        this.buf = ByteBuffer.allocateDirect(slots * stride).order(ByteOrder.nativeOrder());
+        this.freeSlots = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            freeSlots[i] = slots - 1 - i;
+            buf.putInt(i * stride + LAST_ROW, -1);
+            buf.putInt(i * stride + LAST_COL, -1);
+        }
+        this.freeTop = slots;
+    }
+
+    public int rows() { return rowCount; }
+    public int cols() { return colCount; }
+    public int connect() { return connect; }
+    public int capacity() { return slots; }
+    public int bytesPerSlot() { return stride; }
+    public long offHeapBytes() { return (long) slots * stride; }
+
+    // Slot allocation ---------------------------------------------------
+
+    //Returns a cleared slot, or -1 if the arena is full.
+    public int allocate() {
+        int slot;
+        synchronized (freeSlots) {
+            if (freeTop == 0) return -1;
+            slot = freeSlots[--freeTop];
+        }
+        clear(slot);
+        return slot;
+    }
+
+    public void free(int slot) {
+        checkSlot(slot);
+        synchronized (freeSlots) {
+            freeSlots[freeTop++] = slot;
+        }
+    }
+
+    public int allocated() {
+        synchronized (freeSlots) {
+            return slots - freeTop;
+        }
+    }
+
+    // Per-slot operations (same contract as GameBoard) --------------------
+
+    public void clear(int slot) {
+        int base = lock(slot);
+        try {
+            for (int i = base + CELLS; i < base + stride; i++) buf.put(i, (byte) 0);
+            buf.putInt(base + LAST_ROW, -1);
+            buf.putInt(base + LAST_COL, -1);
+            buf.putInt(base + MOVES, 0);
+            bumpVersion(base);
+        } finally {
+            unlock(base);
+        }
+    }
+
+    //Returns row index where placed, or -1 if column full/invalid.
+    public int drop(int slot, int player, int col) {
+        int base = lock(slot);
+        try {
+            return dropUnlocked(base, player, col);
+        } finally {
+            unlock(base);
+        }
+    }
+
+    public int dropBatch(int slot, int[] players, int[] cols, int n, int[] rows, boolean checkWin) {
+        int base = lock(slot);
+        try {
+            int winAt = -1;
+            for (int i = 0; i < n; i++) {
+                if (winAt >= 0) { rows[i] = -1; continue; }
+                rows[i] = dropUnlocked(base, players[i], cols[i]);
+                if (checkWin && rows[i] >= 0 && winnerUnlocked(base) != 0) winAt = i;
+            }
+            return winAt;
+        } finally {
+            unlock(base);
+        }
+    }
+
+    public int checkWinner(int slot) {
+        int base = lock(slot);
+        try {
+            return winnerUnlocked(base);
+        } finally {
+            unlock(base);
+        }
+    }
+
+    public int getCell(int slot, int row, int col) {
+        int base = lock(slot);
+        try {
+            if (row < 0 || row >= rowCount || col < 0 || col >= colCount) return -1;
+            return cell(base, row, col);
+        } finally {
+            unlock(base);
+        }
+    }
+
+    public int moves(int slot) {
+        int base = lock(slot);
+        try {
+            return buf.getInt(base + MOVES);
+        } finally {
+            unlock(base);
+        }
+    }
+
+    public boolean isFull(int slot) {
+        int base = lock(slot);
+        try {
+            for (int c = 0; c < colCount; c++)
+                if (cell(base, 0, c) == 0) return false;
+            return true;
+        } finally {
+            unlock(base);
+        }
+    }
+
+    public String serialize(int slot) {
+        int base = lock(slot);
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (int r = 0; r < rowCount; r++) {
+                for (int c = 0; c < colCount; c++) {
+                    sb.append(cell(base, r, c));
+                    if (c < colCount - 1) sb.append(',');
+                }
+                if (r < rowCount - 1) sb.append(';');
+            }
+            return sb.toString();
+        } finally {
+            unlock(base);
+        }
+    }
+
+    public void deserialize(int slot, String s) {
+        int base = lock(slot);
+        try {
+            String[] rows = s.split(";");
+            for (int r = 0; r < Math.min(rows.length, rowCount); r++) {
+                String[] cols = rows[r].split(",");
+                for (int c = 0; c < Math.min(cols.length, colCount); c++) {
+                    setCell(base, r, c, Integer.parseInt(cols[c]));
+                }
+            }
+            bumpVersion(base);
+        } finally {
+            unlock(base);
+        }
+    }
+
+    //Unsigned: wraps after 2^32 changes of one slot, far beyond any game.
+    public long version(int slot) {
+        checkSlot(slot);
+        return (int) INT.getAcquire(buf, slot * stride + VERSION) & 0xFFFFFFFFL;
+    }
+
+    //Same contract as GameBoard.snapshot.
+    public long snapshot(int slot, long[] into, long sinceVersion) {
+        if (version(slot) == sinceVersion) return GameBoard.UNCHANGED;
+        int words = GameBoard.snapshotLength(rowCount, colCount);
+        if (into.length < words)
+            throw new IllegalArgumentException("Snapshot buffer of " + into.length + " longs, need " + words);
+        int bytes = (rowCount * colCount + 3) / 4;
+        int base = lock(slot);
+        try {
+            Arrays.fill(into, 0, words, 0L);
+            for (int j = 0; j < bytes; j++)
+                into[j >>> 3] |= (buf.get(base + CELLS + j) & 0xFFL) << ((j & 7) << 3);
+            return buf.getInt(base + VERSION) & 0xFFFFFFFFL;
+        } finally {
+            unlock(base);
+        }
+    }
+
+    // Locking -----------------------------------------------------------
+
+    private int lock(int slot) {
+        checkSlot(slot);
+        int base = slot * stride;
+        int spins = 0;
+        while (!INT.compareAndSet(buf, base + LOCK, 0, 1)) {
+            if (++spins < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            } else {
+                spins = 0;
+                Thread.yield();
+            }
+        }
+        return base;
+    }
+
+    private void unlock(int base) {
+        INT.setRelease(buf, base + LOCK, 0);
+    }
+
+    //Caller holds the slot lock; the release store pairs with version()'s acquire load.
+    private void bumpVersion(int base) {
+        INT.setRelease(buf, base + VERSION, buf.getInt(base + VERSION) + 1);
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= slots) throw new IndexOutOfBoundsException("slot " + slot);
+    }
+
+    // Unlocked helpers (caller holds the slot lock) ------------------------
+
+    private int cell(int base, int row, int col) {
+        int i = row * colCount + col;
+        return (buf.get(base + CELLS + (i >> 2)) >> ((i & 3) << 1)) & 3;
+    }
+
+    private void setCell(int base, int row, int col, int player) {
+        int i = row * colCount + col;
+        int at = base + CELLS + (i >> 2);
+        int shift = (i & 3) << 1;
+        buf.put(at, (byte) ((buf.get(at) & ~(3 << shift)) | ((player & 3) << shift)));
+    }
+
+    private int dropUnlocked(int base, int player, int col) {
+        if (col < 0 || col >= colCount) return -1;
+        for (int r = rowCount - 1; r >= 0; r--) {
+            if (cell(base, r, col) == 0) {
+                setCell(base, r, col, player);
+                buf.putInt(base + LAST_ROW, r);
+                buf.putInt(base + LAST_COL, col);
+                buf.putInt(base + MOVES, buf.getInt(base + MOVES) + 1);
+                bumpVersion(base);
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    private int winnerUnlocked(int base) {
+        int lastRow = buf.getInt(base + LAST_ROW), lastCol = buf.getInt(base + LAST_COL);
+        if (lastRow == -1 || lastCol == -1) return 0;
+        int player = cell(base, lastRow, lastCol);
+        if (player == 0) return 0;
+
+        for (int[] d : DIRS) {
+            int count = 1;
+            count += countDirection(base, lastRow, lastCol, d[0], d[1], player);
+            count += countDirection(base, lastRow, lastCol, -d[0], -d[1], player);
+            if (count >= connect) return player;
+        }
+        return 0;
+    }
+
+    private int countDirection(int base, int r, int c, int dr, int dc, int player) {
+        int cnt = 0;
+        int rr = r + dr, cc = c + dc;
+        while (rr >= 0 && rr < rowCount && cc >= 0 && cc < colCount && cell(base, rr, cc) == player) {
+            cnt++;
+            rr += dr;
+            cc += dc;
+        }
+        return cnt;
+    }
+
+    // GameBoard adapter -------------------------------------------------
+
+    //A GameBoard backed by one slot. Holds no cells itself, so it is cheap to create on demand.
+    public GameBoard view(int slot) {
+        checkSlot(slot);
+        return new SlotView(slot);
+    }
+
+    private final class SlotView implements GameBoard {
+        private final int slot;
+
+        SlotView(int slot) { this.slot = slot; }
+
+        public int rows() { return rowCount; }
+        public int cols() { return colCount; }
+        public int connect() { return connect; }
+        public void clear() { BoardArena.this.clear(slot); }
+        public int drop(int player, int col) { return BoardArena.this.drop(slot, player, col); }
+        public int dropBatch(int[] players, int[] cols, int n, int[] rows, boolean checkWin) {
+            return BoardArena.this.dropBatch(slot, players, cols, n, rows, checkWin);
+        }
+        public int getCell(int row, int col) { return BoardArena.this.getCell(slot, row, col); }
+        public String serialize() { return BoardArena.this.serialize(slot); }
+        public void deserialize(String s) { BoardArena.this.deserialize(slot, s); }
+        public int checkWinner() { return BoardArena.this.checkWinner(slot); }
+        public boolean isFull() { return BoardArena.this.isFull(slot); }
+        public long version() { return BoardArena.this.version(slot); }
+        public long snapshot(long[] into, long sinceVersion) {
+            return BoardArena.this.snapshot(slot, into, sinceVersion);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.connectfour;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Board for Connect Four using FLAT COMBINING instead of a plain lock.
+ *
+ * HOW IT WORKS:
+ * - Every thread owns a request slot (ThreadLocal) linked into a shared publication list.
+ * - To drop or check the winner, a thread writes its request into its own slot.
+ * - Whichever thread wins the combiner lock walks the list and executes ALL pending
+ *   requests in one pass, writing each result back into its slot.
+ * - The other threads spin briefly on their own slot (no shared cache line) until
+ *   the combiner has served them.
+ *
+ * KEY DIFFERENCE FROM Board.java / BoardRWLock.java:
+ * - The grid stays in the combiner's cache instead of bouncing between cores, and
+ *   N contended operations cost one lock handoff instead of N.
+ * - Under low contention it costs a bit more (slot publication + list scan).
+ *
+ * Serialization keeps the board only; the combiner lock, publication list and slots
+ * belong to this JVM's threads and start empty in a deserialized copy.
+ */
+public class BoardFlatCombining implements GameBoard, Serializable {
+    public static final int ROWS = Board.ROWS;
+    public static final int COLS = Board.COLS;
+    public static final int CONNECT = Board.CONNECT;
+
+    private static final int OP_DROP = 1;
+    private static final int OP_CHECK_WINNER = 2;
+    private static final int SPINS_BEFORE_YIELD = 256;
+    private static final int CLEANUP_EVERY = 64;      // combining passes between slot cleanups
+    private static final int MAX_IDLE_PASSES = 1024;  // unlink slots idle for this long
+
+    private final int rowCount, colCount, connect;
+    private final int[][] grid;
+    private int lastRow = -1, lastCol = -1;
+    private long version;   // written under combinerLock, read without it through VERSION
+    private static final VarHandle VERSION;
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(BoardFlatCombining.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // transient, rebuilt by readObject
+    private transient AtomicInteger combinerLock = new AtomicInteger(); // 0 = free, 1 = held
+    private transient AtomicReference<Slot> head = new AtomicReference<>();
+    private transient ThreadLocal<Slot> mySlot = ThreadLocal.withInitial(Slot::new);
+    private transient int passes = 0; // guarded by combinerLock
+
+    //One per thread. Written by the owner (request) and by the combiner (result).
+    private static final class Slot {
+        int op, player, col;       // published by the volatile write to pending
+        int result;                // published by the volatile write clearing pending
+        volatile boolean pending;
+        volatile boolean linked;
+        int lastUsedPass;          // only touched by the combiner
+        volatile Slot next;
+    }
+
+    public BoardFlatCombining() {
+        this(ROWS, COLS, CONNECT);
+    }
+
+    //Any geometry: rows x cols grid, connect = discs in a row needed to win.
+    public BoardFlatCombining(int rows, int cols, int connect) {
+        if (rows < 1 || cols < 1 || connect < 2)
+            throw new IllegalArgumentException("Invalid geometry: " + rows + "x" + cols + ", connect " + connect);
+        this.rowCount = rows;
+        this.colCount = cols;
+        this.connect = connect;
+        this.grid = new int[rows][cols];
+        clear();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        combinerLock = new AtomicInteger();
+        head = new AtomicReference<>();
+        mySlot = ThreadLocal.withInitial(Slot::new);
+    }
+
+    public int rows() { return rowCount; }
+    public int cols() { return colCount; }
+    public int connect() { return connect; }
+
+    // Combined operations ------------------------------------------------
+
+    public int drop(int player, int col) {
+        return combine(OP_DROP, player, col);
+    }
+
+    public int checkWinner() {
+        return combine(OP_CHECK_WINNER, 0, 0);
+    }
+
+    private int combine(int op, int player, int col) {
+        Slot slot = mySlot.get();
+        slot.op = op;
+        slot.player = player;
+        slot.col = col;
+        slot.pending = true;
+        if (!slot.linked) link(slot);
+
+        int spins = 0;
+        while (true) {
+            if (combinerLock.get() == 0 && combinerLock.compareAndSet(0, 1)) {
+                try {
+                    scanAndCombine();
+                    // our slot may have been unlinked by a cleanup racing with publication
+                    if (slot.pending) apply(slot);
+                } finally {
+                    combinerLock.set(0);
+                }
+                return slot.result;
+            }
+            if (!slot.pending) return slot.result;
+            if (++spins < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            } else {
+                spins = 0;
+                Thread.yield();
+            }
+        }
+    }
+
+    private void link(Slot slot) {
+        slot.linked = true;
+        Slot h;
+        do {
+            h = head.get();
+            slot.next = h;
+        } while (!head.compareAndSet(h, slot));
+    }
+
+    //Runs while holding combinerLock.
+    private void scanAndCombine() {
+        int pass = ++passes;
+        for (Slot s = head.get(); s != null; s = s.next) {
+            if (s.pending) {
+                s.lastUsedPass = pass;
+                apply(s);
+            }
+        }
+        if (pass % CLEANUP_EVERY == 0) cleanup(pass);
+    }
+
+    //Unlinks idle slots (e.g. threads from a finished pool). Never removes the head,
+    //so it cannot race with link(), which only CASes the head.
+    private void cleanup(int pass) {
+        Slot prev = head.get();
+        if (prev == null) return;
+        Slot s = prev.next;
+        while (s != null) {
+            Slot next = s.next;
+            if (!s.pending && pass - s.lastUsedPass > MAX_IDLE_PASSES) {
+                prev.next = next;
+                s.linked = false;
+            } else {
+                prev = s;
+            }
+            s = next;
+        }
+    }
+
+    private void apply(Slot s) {
+        s.result = s.op == OP_DROP ? dropUnlocked(s.player, s.col) : winnerUnlocked();
+        s.pending = false;
+    }
+
+    // Operations that run directly under the combiner lock -------------------
+
+    private void lock() {
+        int spins = 0;
+        while (!(combinerLock.get() == 0 && combinerLock.compareAndSet(0, 1))) {
+            if (++spins < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            } else {
+                spins = 0;
+                Thread.yield();
+            }
+        }
+    }
+
+    private void unlock() {
+        combinerLock.set(0);
+    }
+
+    public void clear() {
+        lock();
+        try {
+            for (int r = 0; r < rowCount; r++)
+                Arrays.fill(grid[r], 0);
+            lastRow = lastCol = -1;
+            VERSION.setRelease(this, version + 1);
+        } finally {
+            unlock();
+        }
+    }
+
+    public int dropBatch(int[] players, int[] cols, int n, int[] rows, boolean checkWin) {
+        lock();
+        try {
+            int winAt = -1;
+            for (int i = 0; i < n; i++) {
+                if (winAt >= 0) { rows[i] = -1; continue; }
+                rows[i] = dropUnlocked(players[i], cols[i]);
+                if (checkWin && rows[i] >= 0 && winnerUnlocked() != 0) winAt = i;
+            }
+            return winAt;
+        } finally {
+            unlock();
+        }
+    }
+
+    public int getCell(int row, int col) {
+        lock();
+        try {
+            if (row < 0 || row >= rowCount || col < 0 || col >= colCount) return -1;
+            return grid[row][col];
+        } finally {
+            unlock();
+        }
+    }
+
+    public String serialize() {
+        lock();
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (int r = 0; r < rowCount; r++) {
+                for (int c = 0; c < colCount; c++) {
+                    sb.append(grid[r][c]);
+                    if (c < colCount - 1) sb.append(',');
+                }
+                if (r < rowCount - 1) sb.append(';');
+            }
+            return sb.toString();
+        } finally {
+            unlock();
+        }
+    }
+
+    public void deserialize(String s) {
+        lock();
+        try {
+            String[] rows = s.split(";");
+            for (int r = 0; r < Math.min(rows.length, rowCount); r++) {
+                String[] cols = rows[r].split(",");
+                for (int c = 0; c < Math.min(cols.length, colCount); c++) {
+                    grid[r][c] = Integer.parseInt(cols[c]);
+                }
+            }
+            VERSION.setRelease(this, version + 1);
+        } finally {
+            unlock();
+        }
+    }
+
+    public long version() {
+        return (long) VERSION.getAcquire(this);
+    }
+
+    public long snapshot(long[] into, long sinceVersion) {
+        if (version() == sinceVersion) return UNCHANGED;
+        lock();
+        try {
+            GameBoard.pack(grid, rowCount, colCount, into);
+            return version;
+        } finally {
+            unlock();
+        }
+    }
+
+    public boolean isFull() {
+        lock();
+        try {
+            for (int c = 0; c < colCount; c++)
+                if (grid[0][c] == 0) return false;
+            return true;
+        } finally {
+            unlock();
+        }
+    }
+
+    // Unlocked helpers (caller holds combinerLock) ------------------------
+
+    private int dropUnlocked(int player, int col) {
+        if (col < 0 || col >= colCount) return -1;
+        for (int r = rowCount - 1; r >= 0; r--) {
+            if (grid[r][col] == 0) {
+                grid[r][col] = player;
+                lastRow = r;
+                lastCol = col;
+                VERSION.setRelease(this, version + 1);
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    private int winnerUnlocked() {
+        if (lastRow == -1 || lastCol == -1) return 0;
+        int player = grid[lastRow][lastCol];
+        if (player == 0) return 0;
+
+        int[][] dirs = {{0,1},{1,0},{1,1},{1,-1}};
+        for (int[] d : dirs) {
+            int count = 1;
+            count += countDirection(lastRow, lastCol, d[0], d[1], player);
+            count += countDirection(lastRow, lastCol, -d[0], -d[1], player);
+            if (count >= connect) return player;
+        }
+        return 0;
+    }
+
+    private int countDirection(int r, int c, int dr, int dc, int player) {
+        int cnt = 0;
+        int rr = r + dr, cc = c + dc;
+        while (rr >= 0 && rr < rowCount && cc >= 0 && cc < colCount && grid[rr][cc] == player) {
+            cnt++;
+            rr += dr;
+            cc += dc;
+        }
+        return cnt;
+    }
+}
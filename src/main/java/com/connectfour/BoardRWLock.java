@@ -0,0 +1,280 @@
+package com.connectfour;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Board for Connect Four using ReadWriteLock instead of synchronized.
+ * This implementation allows multiple concurrent readers but exclusive writers.
+ * 
+ * KEY DIFFERENCE FROM Board.java:
+ * - Board.java uses synchronized (one thread at a time, even for reads)
+ * - BoardRWLock.java uses ReadWriteLock (multiple readers, exclusive writer)
+ * 
+ * PERFORMANCE CHARACTERISTICS:
+ * - Better performance when reads > writes (common in games)
+ * - Multiple threads can check winner simultaneously
+ * - Only blocks when someone is modifying the board
+ */
+public class BoardRWLock implements GameBoard, Serializable {
+    public static final int ROWS = 6;
+    public static final int COLS = 7;
+    public static final int CONNECT = 4;
+    private static final int PAD_INTS = Board.PAD_INTS;
+    
+    private final int rowCount, colCount, connect;
+    private final int[][] grid;
+    private int lastRow = -1, lastCol = -1;
+    private long version;   // written under the write lock, read without it through VERSION
+    private static final VarHandle VERSION;
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(BoardRWLock.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+   
+    private final ReadWriteLock rwLock;// Read-write lock
+
+    public BoardRWLock() {
+        this(ROWS, COLS, CONNECT);
+    }
+
+    //Any geometry: rows x cols grid, connect = discs in a row needed to win.
+    public BoardRWLock(int rows, int cols, int connect) {
+        this(rows, cols, connect, false);
+    }
+
+    //padded: every row array gets a cache line of unused ints at its end, so boards allocated
+    //back to back never put one board's bottom row on the same line as the next board's
+    //header/lock (see FalseSharingBenchmark). Costs 64 bytes per row.
+    public BoardRWLock(int rows, int cols, int connect, boolean padded) {
+        this(rows, cols, connect, padded, false);
+    }
+
+    //fair: the lock grants in arrival order, so a drop queued behind a stream of readers
+    //waits for the readers that came before it only (non-fair lets new readers barge ahead
+    //and can starve writers; fair costs throughput, see FairnessBenchmark).
+    public BoardRWLock(int rows, int cols, int connect, boolean padded, boolean fair) {
+        if (rows < 1 || cols < 1 || connect < 2)
+            throw new IllegalArgumentException("Invalid geometry: " + rows + "x" + cols + ", connect " + connect);
+        this.rowCount = rows;
+        this.colCount = cols;
+        this.connect = connect;
+        this.rwLock = new ReentrantReadWriteLock(fair);
+        this.grid = new int[rows][padded ? cols + PAD_INTS : cols];
+        clear();
+    }
+
+    public int rows() { return rowCount; }
+    public int cols() { return colCount; }
+    public int connect() { return connect; }
+
+    //Every public operation below is traced as a FlightEvents.BoardOp (free unless recorded),
+    //lock wait included.
+    public void clear() {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        rwLock.writeLock().lock();  // Exclusive lock for writing
+        event.acquired();
+        try {
+            for (int r = 0; r < rowCount; r++) 
+                Arrays.fill(grid[r], 0, colCount, 0);
+            lastRow = lastCol = -1;
+            VERSION.setRelease(this, version + 1);
+        } finally {
+            rwLock.writeLock().unlock();
+            event.finish(FlightEvents.CLEAR, this);
+        }
+    }
+
+    // Drop requires WRITE lock (modifies board state)
+    public int drop(int player, int col) {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        rwLock.writeLock().lock();//no data races
+        event.acquired();
+        try {
+            return dropUnlocked(player, col);
+        } finally {
+            rwLock.writeLock().unlock();//relase write lock
+            event.finish(FlightEvents.DROP, this);
+        }
+    }
+
+    //Batch of drops under ONE write-lock acquisition (same contract as Board.dropBatch).
+    //The win check runs inside the write lock too, so no read lock is needed per op.
+    public int dropBatch(int[] players, int[] cols, int n, int[] rows, boolean checkWin) {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        rwLock.writeLock().lock();
+        event.acquired();
+        try {
+            int winAt = -1;
+            for (int i = 0; i < n; i++) {
+                if (winAt >= 0) { rows[i] = -1; continue; }
+                rows[i] = dropUnlocked(players[i], cols[i]);
+                if (checkWin && rows[i] >= 0 && winnerUnlocked() != 0) winAt = i;
+            }
+            return winAt;
+        } finally {
+            rwLock.writeLock().unlock();
+            event.finish(FlightEvents.DROP_BATCH, this);
+        }
+    }
+
+    private int dropUnlocked(int player, int col) {
+        // Called within the write lock
+        if (col < 0 || col >= colCount) return -1;
+        for (int r = rowCount - 1; r >= 0; r--) {
+            if (grid[r][col] == 0) {
+                grid[r][col] = player;
+                lastRow = r;
+                lastCol = col;
+                VERSION.setRelease(this, version + 1);
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    //getCell requires READ lock (only reads, doesn't modify 
+    //Multiple threads can read simultaneously!
+    public int getCell(int row, int col) {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        rwLock.readLock().lock();  // Shared lock for reading
+        event.acquired();
+        try {
+            if (row < 0 || row >= rowCount || col < 0 || col >= colCount) return -1;
+            return grid[row][col];
+        } finally {
+            rwLock.readLock().unlock();
+            event.finish(FlightEvents.GET_CELL, this);
+        }
+    }
+
+    //serialize requires READ lock
+    public String serialize() {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        rwLock.readLock().lock();
+        event.acquired();
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (int r = 0; r < rowCount; r++) {
+                for (int c = 0; c < colCount; c++) {
+                    sb.append(grid[r][c]);
+                    if (c < colCount - 1) sb.append(',');
+                }
+                if (r < rowCount - 1) sb.append(';');
+            }
+            return sb.toString();
+        } finally {
+            rwLock.readLock().unlock();
+            event.finish(FlightEvents.SERIALIZE, this);
+        }
+    }
+
+    //deserialize requires WRITE lock
+    public void deserialize(String s) {
+        rwLock.writeLock().lock();
+        try {
+            String[] rows = s.split(";");
+            for (int r = 0; r < Math.min(rows.length, rowCount); r++) {
+                String[] cols = rows[r].split(",");
+                for (int c = 0; c < Math.min(cols.length, colCount); c++) {
+                    grid[r][c] = Integer.parseInt(cols[c]);
+                }
+            }
+            VERSION.setRelease(this, version + 1);
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    public long version() {
+        return (long) VERSION.getAcquire(this);
+    }
+
+    //snapshot requires READ lock: one acquisition for the whole position
+    public long snapshot(long[] into, long sinceVersion) {
+        if (version() == sinceVersion) return UNCHANGED;
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        rwLock.readLock().lock();
+        event.acquired();
+        try {
+            GameBoard.pack(grid, rowCount, colCount, into);
+            return version;
+        } finally {
+            rwLock.readLock().unlock();
+            event.finish(FlightEvents.SNAPSHOT, this);
+        }
+    }
+
+    //checkWinner requires READ lock (only examines board)
+    //Multiple threads can check winner simultaneously!
+    
+    public int checkWinner() {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        rwLock.readLock().lock();   //SHARED READ LOCK - Multiple readers OK!
+        event.acquired();
+        try {
+            return winnerUnlocked();
+        } finally {
+            rwLock.readLock().unlock();
+            event.finish(FlightEvents.CHECK_WINNER, this);
+        }
+    }
+
+    private int winnerUnlocked() {
+        // Called within a lock (read or write)
+        if (lastRow == -1 || lastCol == -1) return 0;
+        int player = grid[lastRow][lastCol];
+        if (player == 0) return 0;
+
+        int[][] dirs = {{0,1},{1,0},{1,1},{1,-1}};
+        for (int[] d : dirs) {
+            int count = 1;
+            count += countDirection(lastRow, lastCol, d[0], d[1], player);
+            count += countDirection(lastRow, lastCol, -d[0], -d[1], player);
+            if (count >= connect) return player;
+        }
+        return 0;
+    }
+
+    private int countDirection(int r, int c, int dr, int dc, int player) {
+        // Called within a lock, so no additional locking needed
+        int cnt = 0;
+        int rr = r + dr, cc = c + dc;
+        while (rr >= 0 && rr < rowCount && cc >= 0 && cc < colCount && grid[rr][cc] == player) {
+            cnt++;
+            rr += dr;
+            cc += dc;
+        }
+        return cnt;
+    }
+
+    public boolean isFull() {
+        FlightEvents.BoardOp event = new FlightEvents.BoardOp();
+        event.waitFor();
+        rwLock.readLock().lock();
+        event.acquired();
+        try {
+            for (int c = 0; c < colCount; c++) 
+                if (grid[0][c] == 0) return false;
+            return true;
+        } finally {
+            rwLock.readLock().unlock();
+            event.finish(FlightEvents.IS_FULL, this);
+        }
+    }
+}
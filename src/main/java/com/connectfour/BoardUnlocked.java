@@ -0,0 +1,151 @@
+package com.connectfour;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+//Board for Connect Four with NO locking at all.
+//Only safe when a single thread owns it, e.g. the GameEventLoop that owns the game.
+//Same layout and rules as Board, minus every synchronized.
+
+public class BoardUnlocked implements GameBoard, Serializable {
+    public static final int ROWS = Board.ROWS;
+    public static final int COLS = Board.COLS;
+    public static final int CONNECT = Board.CONNECT;
+    private final int rowCount, colCount, connect;
+    private final int[][] grid;
+    private int lastRow = -1, lastCol = -1;
+    private long version;
+
+    public BoardUnlocked() {
+        this(ROWS, COLS, CONNECT);
+    }
+
+    //Any geometry: rows x cols grid, connect = discs in a row needed to win.
+    public BoardUnlocked(int rows, int cols, int connect) {
+        if (rows < 1 || cols < 1 || connect < 2)
+            throw new IllegalArgumentException("Invalid geometry: " + rows + "x" + cols + ", connect " + connect);
+        this.rowCount = rows;
+        this.colCount = cols;
+        this.connect = connect;
+        this.grid = new int[rows][cols];
+        clear();
+    }
+
+    public int rows() { return rowCount; }
+    public int cols() { return colCount; }
+    public int connect() { return connect; }
+
+    public void clear() {
+        for (int r = 0; r < rowCount; r++) 
+        Arrays.fill(grid[r], 0);
+        lastRow = lastCol = -1;
+        version++;
+    }
+
+    //Attempt to drop a disk for player in column col.
+    //Returns row index where placed, or -1 if column full/invalid.
+    public int drop(int player, int col) {
+        return dropUnlocked(player, col);
+    }
+
+    //Same contract as Board.dropBatch (no lock to amortize here).
+    public int dropBatch(int[] players, int[] cols, int n, int[] rows, boolean checkWin) {
+        int winAt = -1;
+        for (int i = 0; i < n; i++) {
+            if (winAt >= 0) { rows[i] = -1; continue; }
+            rows[i] = dropUnlocked(players[i], cols[i]);
+            if (checkWin && rows[i] >= 0 && winnerUnlocked() != 0) winAt = i;
+        }
+        return winAt;
+    }
+
+    private int dropUnlocked(int player, int col) {
+        if (col < 0 || col >= colCount) return -1;
+        for (int r = rowCount - 1; r >= 0; r--) {
+            if (grid[r][col] == 0) {
+                grid[r][col] = player;
+                lastRow = r; lastCol = col;
+                version++;
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    public int getCell(int row, int col) {
+        if (row < 0 || row >= rowCount || col < 0 || col >= colCount) return -1;
+        return grid[row][col];
+    }
+
+    public String serialize() {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < rowCount; r++) {
+            for (int c = 0; c < colCount; c++) {
+                sb.append(grid[r][c]);
+                if (c < colCount - 1) sb.append(',');
+            }
+            if (r < rowCount - 1) sb.append(';');
+        }
+        return sb.toString();
+    }
+
+    public void deserialize(String s) {
+        // not used by server, but available
+        String[] rows = s.split(";");
+        for (int r = 0; r < Math.min(rows.length, rowCount); r++) {
+            String[] cols = rows[r].split(",");
+            for (int c = 0; c < Math.min(cols.length, colCount); c++) {
+                grid[r][c] = Integer.parseInt(cols[c]);
+            }
+        }
+        version++;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public long snapshot(long[] into, long sinceVersion) {
+        if (version == sinceVersion) return UNCHANGED;
+        GameBoard.pack(grid, rowCount, colCount, into);
+        return version;
+    }
+
+    // Check whether the last move produced a win for the player who occupies (lastRow,lastCol).
+    //If lastRow/lastCol are -1, return 0 (no winner).
+    //Returns 0 if no winner, otherwise returns player number (1 or 2).
+     
+    public int checkWinner() {
+        return winnerUnlocked();
+    }
+
+    private int winnerUnlocked() {
+        if (lastRow == -1 || lastCol == -1) return 0;
+        int player = grid[lastRow][lastCol];
+        if (player == 0) return 0;
+
+        // directions: horizontal, vertical, diag1, diag2
+        int[][] dirs = {{0,1},{1,0},{1,1},{1,-1}};
+        for (int[] d : dirs) {
+            int count = 1;
+            count += countDirection(lastRow, lastCol, d[0], d[1], player);
+            count += countDirection(lastRow, lastCol, -d[0], -d[1], player);
+            if (count >= connect) return player;
+        }
+        return 0;
+    }
+
+    private int countDirection(int r, int c, int dr, int dc, int player) {
+        int cnt = 0;
+        int rr = r + dr, cc = c + dc;
+        while (rr >= 0 && rr < rowCount && cc >= 0 && cc < colCount && grid[rr][cc] == player) {
+            cnt++; rr += dr; cc += dc;
+        }
+        return cnt;
+    }
+
+    public boolean isFull() {
+        for (int c = 0; c < colCount; c++) if (grid[0][c] == 0) return false;
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package com.connectfour;
+
+import java.io.*;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test: aggregate moves/sec of a ConnectServer cluster as nodes are added, all on
+ * localhost.
+ *
+ * For every node count, a ClusterRouter (redirect mode, in this JVM) and that many
+ * ClusterNode processes (forked JVMs, registering with the router) are started. G games
+ * are then played flat out by 2*G client threads: each connects to the router with
+ * GAME:<id>, follows the REDIRECT to the owning node and plays random legal moves,
+ * asking for a rematch after every win or draw. A move counts when its BOARD comes back.
+ * After a warmup the moves over the measurement window are summed.
+ *
+ * Scaling is bounded by the machine: on localhost all nodes share its cores (and the
+ * client threads need some too), so expect near-linear gains only while cores are free.
+ *
+ * Usage: java com.connectfour.ClusterBenchmark [nodeCounts e.g. 1,2,4] [games] [seconds]
+ */
+public class ClusterBenchmark {
+    private static final int WARMUP_SECONDS = 2;
+
+    public static void main(String[] args) throws Exception {
+        String[] counts = (args.length > 0 ? args[0] : "1,2,4").split(",");
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("=== Cluster Scaling (localhost) ===");
+        System.out.printf("Games: %d (%d client threads)   Measure: %ds after %ds warmup   Cores: %d%n%n",
+                games, games * 2, seconds, WARMUP_SECONDS, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-6s %14s %9s   %s%n", "Nodes", "moves/sec", "scaling", "games per node");
+        double base = 0;
+        long firstGame = 1;
+        for (String count : counts) {
+            int nodes = Integer.parseInt(count.trim());
+            double rate = run(nodes, games, seconds, firstGame);
+            firstGame += games;
+            if (base == 0) base = rate / nodes;
+            System.out.printf("%-6d %,14.0f %8.2fx   %s%n", nodes, rate, rate / base, lastPlacement);
+        }
+    }
+
+    private static String lastPlacement = "";
+
+    private static double run(int nodeCount, int games, int seconds, long firstGame) throws Exception {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));   // router start/join messages
+        int routerPort = LoadClient.freePort();
+        ClusterRouter router = new ClusterRouter(routerPort, false);
+        Thread routerThread = new Thread(() -> {
+            try { router.start(); } catch (IOException ignored) {}
+        }, "Router");
+        routerThread.setDaemon(true);
+        routerThread.start();
+
+        List<Process> nodes = new ArrayList<>();
+        List<LoadClient> players = new ArrayList<>();
+        try {
+            for (int i = 0; i < nodeCount; i++) {
+                nodes.add(new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                        "-Xms256m", "-Xmx256m", "-cp", System.getProperty("java.class.path"), ClusterNode.class.getName(),
+                        String.valueOf(LoadClient.freePort()), "--router", "127.0.0.1:" + routerPort)
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.DISCARD)
+                        .start());
+            }
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (router.nodeCount() < nodeCount) {
+                if (System.currentTimeMillis() > deadline) throw new IOException("nodes did not register");
+                Thread.sleep(50);
+            }
+
+            LongAdder moves = new LongAdder();
+            for (long g = firstGame; g < firstGame + games; g++) {
+                for (int seat = 0; seat < 2; seat++) {
+                    LoadClient p = new LoadClient(routerPort, g, moves);
+                    players.add(p);
+                    p.start();
+                }
+            }
+            Thread.sleep(WARMUP_SECONDS * 1000L);
+            long before = moves.sum();
+            long start = System.nanoTime();
+            Thread.sleep(seconds * 1000L);
+            long done = moves.sum() - before;
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            lastPlacement = router.describe().replace("127.0.0.1:", ":");
+            return done / elapsed;
+        } finally {
+            for (LoadClient p : players) p.close();
+            router.stop();
+            for (Process p : nodes) p.destroy();
+            for (Process p : nodes) p.waitFor();
+            System.setOut(console);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.connectfour;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * One node of a ConnectServer cluster: hosts any number of games behind one port.
+ *
+ * A connection names its game first ("GAME:<id>", as sent by ClusterRouter or a client the
+ * router redirected); from then on it is an ordinary ConnectServer connection of that game
+ * (seat 1, seat 2, then spectators). Games are created on first use and live in this
+ * process only, so the node that owns a game is the only one that ever sees its moves.
+ *
+ * With --router the node registers itself ("NODE:<host>:<port>") and the router starts
+ * placing new games on it; games the node reclaims are reported back ("CLOSED:") so the
+ * router forgets them.
+ *
+ * With --replicate every game's moves are shipped to a ReplicationStandby (one
+ * connection and one batched log for all games of the node).
+ *
+ * OVERLOAD: connections past --max-connections are refused with "BUSY:" (shed) or wait in
+ * the accept backlog (block); see Admission. A new game past --max-games is refused with
+ * "BUSY:" while games already running keep their seats. All games share bounded pools, and
+ * a game is dropped once both its players have left. --max-connections 0 turns all of this
+ * off (one thread per connection, games never dropped).
+ *
+ * With --engine eventloop all games share --loops loop threads (EventLoopGroup, default one
+ * per core) instead of a loop thread each.
+ *
+ * Usage: java com.connectfour.ClusterNode [port] [--router host:port] [--board impl] [--engine locked|eventloop] [--loops n]
+ *                                         [--replicate standbyHost:port sync|async]
+ *                                         [--max-connections n] [--max-games n] [--overload shed|block] [--backlog n]
+ */
+public class ClusterNode {
+    private static final int MAX_LINE = 64;
+    private static final int HANDSHAKE_TIMEOUT_MS = 5000;
+
+    private final int port;
+    private final String boardImpl;
+    private final ConnectServer.Engine engine;
+    private final ConcurrentHashMap<Long, ConnectServer> games = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, int[]> seeds = new ConcurrentHashMap<>();
+    private ReplicationLog replication;
+    private Admission admission = new Admission(0, Admission.OverloadPolicy.SHED);
+    private int maxGames;          // 0 = unlimited
+    private int backlog = 50;
+    private ExecutorService handshakes = Executors.newCachedThreadPool();
+    private ExecutorService connections, writers;   // null: every game has its own (unbounded)
+    private int loopShards = Runtime.getRuntime().availableProcessors();
+    private EventLoopGroup loops;                   // EVENT_LOOP only, created with the first game
+    private final LinkedBlockingQueue<Long> reclaimed = new LinkedBlockingQueue<>();   // not yet reported
+    private volatile boolean reporting;             // registered with a router
+
+    public ClusterNode(int port, String boardImpl, ConnectServer.Engine engine) {
+        this.port = port;
+        this.boardImpl = boardImpl;
+        this.engine = engine;
+    }
+
+    //maxConnections <= 0: no limits at all, as before admission control.
+    public ClusterNode limits(int maxConnections, int maxGames, Admission.OverloadPolicy overload, int backlog) {
+        this.admission = new Admission(maxConnections, overload);
+        this.backlog = backlog;
+        if (maxConnections > 0) {
+            this.maxGames = maxGames;
+            // a seated player holds a thread for the whole game; beyond the seats, hand-off only
+            int seats = 2 * (maxGames > 0 ? maxGames : maxConnections);
+            this.connections = Admission.boundedPool("Player", Math.min(seats, maxConnections), 0);
+            this.writers = Admission.boundedPool("Writer",
+                    Math.max(2, Runtime.getRuntime().availableProcessors()), maxConnections);
+            this.handshakes.shutdown();
+            this.handshakes = Admission.boundedPool("Handshake", 8, maxConnections);
+        }
+        return this;
+    }
+
+    //EVENT_LOOP: number of loop threads shared by all games. Set before the first game.
+    public ClusterNode eventLoops(int shards) {
+        this.loopShards = shards;
+        return this;
+    }
+
+    public Admission admission() {
+        return admission;
+    }
+
+    public void start(String router) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, backlog)) {
+            System.out.println("Cluster node listening on port " + serverSocket.getLocalPort());
+            if (router != null) {
+                register(router, serverSocket.getLocalPort());
+                startReporter(router, serverSocket.getLocalPort());
+            }
+            while (true) {
+                Socket s = serverSocket.accept();
+                if (!admission.admit()) {
+                    Admission.reject(s, "Server full, try again later.");
+                    continue;
+                }
+                try {
+                    handshakes.execute(() -> route(s));
+                } catch (RejectedExecutionException e) {
+                    admission.release();
+                    admission.shedOne();
+                    Admission.reject(s, "Server busy, try again later.");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public ClusterNode replicate(ReplicationLog log) {
+        this.replication = log;
+        return this;
+    }
+
+    //A game taken over from a failed primary: resumed from these moves when its players return.
+    public void seed(long id, int[] moves) {
+        seeds.put(id, moves);
+    }
+
+    public int games() {
+        return games.size();
+    }
+
+    //Reads the GAME line and hands the socket to that game, which releases its permit.
+    private void route(Socket s) {
+        try {
+            s.setTcpNoDelay(true);
+            s.setSoTimeout(HANDSHAKE_TIMEOUT_MS);   // a silent connection must not hold a handshake thread
+            String line = readLine(s.getInputStream());
+            s.setSoTimeout(0);
+            if (line == null || !line.startsWith("GAME:")) {
+                reply(s, "INFO:Expected GAME:<id>");
+                s.close();
+                admission.release();
+                return;
+            }
+            long id = Long.parseLong(line.substring(5).trim());
+            while (true) {
+                ConnectServer game = games.get(id);
+                if (game == null) {
+                    synchronized (games) {   // the limit check and the insert are one step
+                        game = games.get(id);
+                        if (game == null) {
+                            if (maxGames > 0 && games.size() >= maxGames && !seeds.containsKey(id)) {
+                                admission.release();
+                                admission.shedOne();
+                                Admission.reject(s, "No new games, server at capacity.");
+                                return;
+                            }
+                            game = newGame(id);
+                            games.put(id, game);
+                        }
+                    }
+                }
+                if (game.tryAccept(s)) return;
+                games.remove(id, game);   // reclaimed since the lookup: this connection starts a new one
+            }
+        } catch (IOException | NumberFormatException e) {
+            try { s.close(); } catch (IOException ignored) {}
+            admission.release();
+        }
+    }
+
+    private ConnectServer newGame(long id) {
+        ConnectServer game = new ConnectServer(0, null, engine, boardImpl).verbose(false)
+                .admission(admission, backlog);
+        if (connections != null) {
+            game.executors(connections, writers);
+            // reclaim the game, and its slot under --max-games, once its players are gone;
+            // retire() refuses it to connections routed meanwhile, unless one got a seat first
+            game.onEmpty(() -> {
+                if (!game.retire()) return;
+                games.remove(id, game);
+                game.close();
+                if (reporting) reclaimed.add(id);
+            });
+        }
+        if (engine == ConnectServer.Engine.EVENT_LOOP) {
+            if (loops == null) loops = new EventLoopGroup("GameLoop", loopShards, 4096);   // under games' lock
+            game.eventLoops(loops, id);
+        }
+        if (replication != null) game.replicate(replication, id);
+        int[] moves = seeds.remove(id);
+        if (moves != null) game.resume(moves);
+        return game;
+    }
+
+    //One line, byte by byte: nothing the game's own reader should see may be buffered here.
+    static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            if (b != '\r') sb.append((char) b);
+            if (sb.length() > MAX_LINE) return null;
+        }
+        return b == -1 && sb.length() == 0 ? null : sb.toString();
+    }
+
+    static void reply(Socket s, String line) throws IOException {
+        OutputStream out = s.getOutputStream();
+        out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void register(String router, int port) throws IOException {
+        int colon = router.lastIndexOf(':');
+        try (Socket s = new Socket(router.substring(0, colon), Integer.parseInt(router.substring(colon + 1)))) {
+            reply(s, "NODE:" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + port);
+            System.out.println("Registered with router " + router + ": " + readLine(s.getInputStream()));
+        }
+    }
+
+    //Sends reclaimed game ids to the router in batches; kept for the next try if it is down.
+    private void startReporter(String router, int port) {
+        reporting = true;
+        Thread t = new Thread(() -> {
+            List<Long> batch = new ArrayList<>();
+            try {
+                while (true) {
+                    batch.add(reclaimed.take());
+                    reclaimed.drainTo(batch);
+                    try {
+                        report(router, port, batch);
+                        batch.clear();
+                    } catch (IOException e) {
+                        Thread.sleep(1000);
+                    }
+                }
+            } catch (InterruptedException ignored) {
+            }
+        }, "RouterReporter");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private static void report(String router, int port, List<Long> ids) throws IOException {
+        int colon = router.lastIndexOf(':');
+        try (Socket s = new Socket(router.substring(0, colon), Integer.parseInt(router.substring(colon + 1)))) {
+            StringBuilder sb = new StringBuilder("CLOSED:").append(InetAddress.getLoopbackAddress().getHostAddress()).append(":").append(port);
+            for (long id : ids) sb.append("\n").append(id);
+            reply(s, sb.toString());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 5001;
+        String router = null;
+        String boardImpl = "sync";
+        ConnectServer.Engine engine = ConnectServer.Engine.LOCKED;
+        ReplicationLog replication = null;
+        int maxConnections = 1024;
+        int maxGames = 256;
+        Admission.OverloadPolicy overload = Admission.OverloadPolicy.SHED;
+        int backlog = 50;
+        int loopShards = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--router") && i + 1 < args.length) {
+                router = args[++i];
+            } else if (args[i].equals("--board") && i + 1 < args.length) {
+                boardImpl = args[++i];
+            } else if (args[i].equals("--engine") && i + 1 < args.length) {
+                engine = args[++i].equals("eventloop") ? ConnectServer.Engine.EVENT_LOOP : ConnectServer.Engine.LOCKED;
+            } else if (args[i].equals("--loops") && i + 1 < args.length) {
+                loopShards = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--replicate") && i + 2 < args.length) {
+                String standby = args[++i];
+                replication = new ReplicationLog(ReplicationLog.address(standby),
+                        ReplicationLog.Ack.valueOf(args[++i].toUpperCase()));
+            } else if (args[i].equals("--max-connections") && i + 1 < args.length) {
+                maxConnections = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--max-games") && i + 1 < args.length) {
+                maxGames = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--overload") && i + 1 < args.length) {
+                overload = Admission.OverloadPolicy.valueOf(args[++i].toUpperCase());
+            } else if (args[i].equals("--backlog") && i + 1 < args.length) {
+                backlog = Integer.parseInt(args[++i]);
+            } else {
+                port = Integer.parseInt(args[i]);
+            }
+        }
+        new ClusterNode(port, boardImpl, engine).replicate(replication).eventLoops(loopShards)
+                .limits(maxConnections, maxGames, overload, backlog).start(router);
+    }
+}
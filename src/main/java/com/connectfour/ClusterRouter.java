@@ -0,0 +1,282 @@
+package com.connectfour;
+
+import java.io.*;
+import java.net.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Front door of a ConnectServer cluster: decides which ClusterNode owns a game and sends
+ * the client there.
+ *
+ * HOW IT WORKS:
+ * - PLACEMENT: consistent hashing. Every node is hashed onto a ring at VNODES points; a new
+ *   game belongs to the first node point at or after the hash of its id. Adding a node
+ *   takes over only the arcs in front of its points, about 1/N of new games.
+ * - STICKINESS: the first placement of a game is recorded in a GameIndex (game id -> node
+ *   number), so a live game never moves when nodes join; only games created afterwards
+ *   rebalance onto the new node. A node reports the games it has reclaimed ("CLOSED:") and
+ *   their entries are removed, so the index holds live games only. Entries never expire:
+ *   the players of a running game talk to its node, not to the router, so the router cannot
+ *   tell an idle game from a finished one.
+ * - REDIRECT mode (default): reply "REDIRECT:host:port" and close; the client reconnects to
+ *   the node, so the router is out of the data path and never a throughput bottleneck.
+ *   PROXY mode: connect to the node and pipe both directions, for clients that cannot
+ *   follow redirects (one thread per direction per connection).
+ * - OVERLOAD: at most --max-connections connections at once (see Admission); the rest are
+ *   answered "BUSY:" (shed) or left in the accept backlog (block). Threads are bounded
+ *   accordingly: a small pool in redirect mode, two per admitted connection in proxy mode.
+ *
+ * Protocol (first line of a connection):
+ *   GAME:<id>            a player or spectator for game id (> 0)
+ *   NODE:<host>:<port>   a node joining; reply "OK:<n> nodes"
+ *   NODES                reply with the node list and games placed on each
+ *   CLOSED:<host>:<port> a node reporting reclaimed games, one id per following line
+ *
+ * Usage: java com.connectfour.ClusterRouter [port] [--nodes host:port,...] [--proxy]
+ *                                           [--max-connections n] [--overload shed|block] [--backlog n]
+ */
+public class ClusterRouter {
+    private static final int VNODES = 128;
+
+    private final int port;
+    private final boolean proxy;
+    private final List<InetSocketAddress> nodes = new ArrayList<>();   // index = node number; guarded by this
+    private final List<Long> placed = new ArrayList<>();               // games placed per node; guarded by this
+    private volatile TreeMap<Long, Integer> ring = new TreeMap<>();    // copy-on-write
+    private final GameIndex owners = new GameIndex(1 << 16);
+    private final Admission admission;
+    private final int backlog;
+    private final ExecutorService pool;
+    private volatile ServerSocket serverSocket;
+
+    public ClusterRouter(int port, boolean proxy) {
+        this(port, proxy, 4096, Admission.OverloadPolicy.SHED, 50);
+    }
+
+    public ClusterRouter(int port, boolean proxy, int maxConnections, Admission.OverloadPolicy overload, int backlog) {
+        this.port = port;
+        this.proxy = proxy;
+        this.admission = new Admission(maxConnections, overload);
+        this.backlog = backlog;
+        if (maxConnections <= 0) {
+            this.pool = Executors.newCachedThreadPool();
+        } else if (proxy) {
+            this.pool = Admission.boundedPool("Proxy", 2 * maxConnections, 0);
+        } else {
+            this.pool = Admission.boundedPool("Router", 16, maxConnections);
+        }
+    }
+
+    public synchronized int addNode(InetSocketAddress node) {
+        if (nodes.contains(node)) return nodes.size();
+        int number = nodes.size();
+        nodes.add(node);
+        placed.add(0L);
+        TreeMap<Long, Integer> next = new TreeMap<>(ring);
+        for (int v = 0; v < VNODES; v++) {
+            next.put(mix(((long) node.toString().hashCode() << 32) ^ v), number);
+        }
+        ring = next;
+        System.out.println("Node " + number + " joined: " + node + " (" + nodes.size() + " nodes)");
+        return nodes.size();
+    }
+
+    //Owner of game id: where it was first placed, else the ring decides and that is recorded.
+    public InetSocketAddress route(long id) {
+        int owner = owners.get(id);
+        if (owner == GameIndex.NO_SLOT) {
+            synchronized (this) {
+                owner = owners.get(id);
+                if (owner == GameIndex.NO_SLOT) {
+                    Map.Entry<Long, Integer> e = ring.ceilingEntry(mix(id));
+                    if (e == null) e = ring.firstEntry();
+                    if (e == null) return null;   // no nodes yet
+                    owner = e.getValue();
+                    owners.put(id, owner);
+                    placed.set(owner, placed.get(owner) + 1);
+                }
+            }
+        }
+        synchronized (this) {
+            return nodes.get(owner);
+        }
+    }
+
+    //A node has reclaimed game id: forget it, unless the id has since been placed elsewhere.
+    public synchronized void closed(InetSocketAddress node, long id) {
+        int number = nodes.indexOf(node);
+        if (number >= 0 && owners.get(id) == number) owners.remove(id);
+    }
+
+    public synchronized int nodeCount() {
+        return nodes.size();
+    }
+
+    public synchronized String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < nodes.size(); i++) {
+            if (i > 0) sb.append(", ");
+            InetSocketAddress node = nodes.get(i);
+            sb.append(node.getHostString()).append(":").append(node.getPort()).append("=").append(placed.get(i)).append(" games");
+        }
+        return sb.append(" (").append(owners.size()).append(" live)").toString();
+    }
+
+    //SplitMix64 finalizer: game ids are sequential, their ring positions must not be.
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    public void start() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, backlog)) {
+            this.serverSocket = serverSocket;
+            System.out.println("Cluster router listening on port " + serverSocket.getLocalPort()
+                    + (proxy ? " (proxy)" : " (redirect)"));
+            while (true) {
+                Socket s = serverSocket.accept();
+                if (!admission.admit()) {
+                    Admission.reject(s, "Router full, try again later.");
+                    continue;
+                }
+                try {
+                    pool.execute(() -> {
+                        try {
+                            handle(s);
+                        } finally {
+                            admission.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    admission.release();
+                    admission.shedOne();
+                    Admission.reject(s, "Router busy, try again later.");
+                }
+            }
+        } catch (SocketException e) {
+            if (serverSocket == null || !serverSocket.isClosed()) throw e;   // stop()
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //Stops accepting; connections already proxied carry on until they close.
+    public void stop() throws IOException {
+        ServerSocket s = serverSocket;
+        if (s != null) s.close();
+        pool.shutdown();
+    }
+
+    private void handle(Socket s) {
+        try {
+            s.setTcpNoDelay(true);
+            String line = ClusterNode.readLine(s.getInputStream());
+            if (line == null) {
+                s.close();
+            } else if (line.startsWith("GAME:")) {
+                long id = Long.parseLong(line.substring(5).trim());
+                InetSocketAddress node = id > 0 ? route(id) : null;
+                if (node == null) {
+                    ClusterNode.reply(s, id > 0 ? "INFO:No cluster nodes available." : "INFO:Game ids start at 1.");
+                    s.close();
+                } else if (proxy) {
+                    proxy(s, node, line);
+                } else {
+                    ClusterNode.reply(s, "REDIRECT:" + node.getHostString() + ":" + node.getPort());
+                    s.close();
+                }
+            } else if (line.startsWith("NODE:")) {
+                int n = addNode(address(line.substring(5)));
+                ClusterNode.reply(s, "OK:" + n + " nodes");
+                s.close();
+            } else if (line.startsWith("CLOSED:")) {
+                InetSocketAddress node = address(line.substring(7));
+                InputStream in = s.getInputStream();
+                String id;
+                while ((id = ClusterNode.readLine(in)) != null) closed(node, Long.parseLong(id.trim()));
+                s.close();
+            } else if (line.equals("NODES")) {
+                ClusterNode.reply(s, describe());
+                s.close();
+            } else {
+                ClusterNode.reply(s, "INFO:Unknown command: " + line);
+                s.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            try { s.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    static InetSocketAddress address(String hostPort) {
+        int colon = hostPort.lastIndexOf(':');
+        return new InetSocketAddress(hostPort.substring(0, colon), Integer.parseInt(hostPort.substring(colon + 1)));
+    }
+
+    private void proxy(Socket client, InetSocketAddress node, String gameLine) throws IOException {
+        Socket upstream = new Socket();
+        upstream.setTcpNoDelay(true);
+        upstream.connect(node);
+        ClusterNode.reply(upstream, gameLine);
+        try {
+            pool.execute(() -> pipe(upstream, client));
+        } catch (RejectedExecutionException e) {
+            upstream.close();
+            throw e;
+        }
+        pipe(client, upstream);
+    }
+
+    //Copies until either side closes, then closes both so the other pipe ends too.
+    private static void pipe(Socket from, Socket to) {
+        byte[] buf = new byte[8192];
+        try {
+            InputStream in = from.getInputStream();
+            OutputStream out = to.getOutputStream();
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+                out.flush();
+            }
+        } catch (IOException ignored) {
+        } finally {
+            try { from.close(); } catch (IOException ignored) {}
+            try { to.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 5000;
+        boolean proxy = false;
+        String nodeList = null;
+        int maxConnections = 4096;
+        Admission.OverloadPolicy overload = Admission.OverloadPolicy.SHED;
+        int backlog = 50;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--proxy")) {
+                proxy = true;
+            } else if (args[i].equals("--nodes") && i + 1 < args.length) {
+                nodeList = args[++i];
+            } else if (args[i].equals("--max-connections") && i + 1 < args.length) {
+                maxConnections = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--overload") && i + 1 < args.length) {
+                overload = Admission.OverloadPolicy.valueOf(args[++i].toUpperCase());
+            } else if (args[i].equals("--backlog") && i + 1 < args.length) {
+                backlog = Integer.parseInt(args[++i]);
+            } else {
+                port = Integer.parseInt(args[i]);
+            }
+        }
+        ClusterRouter router = new ClusterRouter(port, proxy, maxConnections, overload, backlog);
+        if (nodeList != null) {
+            for (String hp : nodeList.split(",")) router.addNode(address(hp));
+        }
+        router.start();
+    }
+}
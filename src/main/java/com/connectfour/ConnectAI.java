@@ -0,0 +1,236 @@
+package com.connectfour;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connect Four AI: alpha-beta negamax over BitBoard, parallelized on a ForkJoinPool.
+ *
+ * PARALLEL SEARCH (young brothers wait):
+ * - At nodes with enough remaining depth, the first (best ordered) move is searched
+ *   serially to get a good alpha, then the remaining siblings are forked as tasks.
+ * - All threads share one lock-free TranspositionTable, so work done by one
+ *   thread prunes the others.
+ *
+ * TIME BUDGET:
+ * - chooseMove() runs iterative deepening until the per-move budget expires and
+ *   returns the best move of the deepest completed iteration.
+ * - The pool is private and sized by the caller, so the bot never uses more cores
+ *   than it was given.
+ */
+public class ConnectAI {
+    private static final int WIN = 1000;
+    private static final int SPLIT_DEPTH = 5;        // only fork where the subtree is worth a task
+    private static final int[] ORDER = {3, 2, 4, 1, 5, 0, 6};
+
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final long budgetNanos;
+    private final LongAdder nodes = new LongAdder();
+    private volatile long deadline;
+    private volatile boolean aborted;
+    private int lastDepth;
+    private int lastScore;
+
+    public ConnectAI(int parallelism, long budgetMillis) {
+        this(parallelism, budgetMillis, 20);
+    }
+
+    public ConnectAI(int parallelism, long budgetMillis, int log2TableEntries) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.table = new TranspositionTable(log2TableEntries);
+        this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+
+    //Iterative deepening within the time budget. Returns a column, or -1 if no move is possible.
+    public int chooseMove(BitBoard pos) {
+        if (pos.isFull()) return -1;
+        for (int col : ORDER) if (pos.canPlay(col) && pos.isWinningMove(col)) return col;
+
+        deadline = System.nanoTime() + budgetNanos;
+        int best = firstLegal(pos);
+        int maxDepth = BitBoard.ROWS * BitBoard.COLS - pos.moves();
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            int[] result = searchRoot(pos, depth);
+            if (aborted) break;
+            best = result[0];
+            lastDepth = depth;
+            lastScore = result[1];
+            if (Math.abs(lastScore) >= WIN - BitBoard.ROWS * BitBoard.COLS) break; // forced result found
+        }
+        return best;
+    }
+
+    //Fixed-depth search with no time limit (used by the benchmarks).
+    public int searchDepth(BitBoard pos, int depth) {
+        deadline = Long.MAX_VALUE;
+        int[] result = searchRoot(pos, depth);
+        lastDepth = depth;
+        lastScore = result[1];
+        return result[0];
+    }
+
+    public long nodes() { return nodes.sum(); }
+    public int lastDepth() { return lastDepth; }
+    public int lastScore() { return lastScore; }
+    public int parallelism() { return pool.getParallelism(); }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private int[] searchRoot(BitBoard pos, int depth) {
+        aborted = false;
+        table.newSearch();
+        return pool.invoke(new RootTask(pos, depth));
+    }
+
+    private class RootTask extends RecursiveTask<int[]> {
+        private final BitBoard pos;
+        private final int depth;
+
+        RootTask(BitBoard pos, int depth) {
+            this.pos = pos;
+            this.depth = depth;
+        }
+
+        @Override
+        protected int[] compute() {
+            int[] moves = orderedMoves(pos, -1);
+            int alpha = -WIN - 1, beta = WIN + 1;
+            int bestMove = moves[0];
+
+            BitBoard first = new BitBoard(pos);
+            first.play(moves[0]);
+            int bestScore = -negamax(first, depth - 1, -beta, -alpha, 1);
+            alpha = Math.max(alpha, bestScore);
+
+            List<SearchTask> siblings = new ArrayList<>();
+            for (int i = 1; i < moves.length; i++) {
+                BitBoard child = new BitBoard(pos);
+                child.play(moves[i]);
+                siblings.add(new SearchTask(child, depth - 1, -beta, -alpha, 1, moves[i]));
+            }
+            for (SearchTask t : invokeAll(siblings)) {
+                int score = -t.join();
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = t.move;
+                }
+            }
+            return new int[] {bestMove, bestScore};
+        }
+    }
+
+    private class SearchTask extends RecursiveTask<Integer> {
+        private final BitBoard pos;
+        private final int depth, alpha, beta, ply, move;
+
+        SearchTask(BitBoard pos, int depth, int alpha, int beta, int ply, int move) {
+            this.pos = pos;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.ply = ply;
+            this.move = move;
+        }
+
+        @Override
+        protected Integer compute() {
+            return negamax(pos, depth, alpha, beta, ply);
+        }
+    }
+
+    private int negamax(BitBoard pos, int depth, int alpha, int beta, int ply) {
+        nodes.increment();
+        if (aborted) return 0;
+        if (pos.isFull()) return 0;
+        for (int col = 0; col < BitBoard.COLS; col++) {
+            if (pos.canPlay(col) && pos.isWinningMove(col)) return WIN - ply;
+        }
+        if (depth <= 0) return pos.evaluate();
+        if (depth >= 2 && System.nanoTime() > deadline) {
+            aborted = true;
+            return 0;
+        }
+
+        long key = pos.key();
+        long entry = table.probe(key);
+        int ttMove = -1;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int s = TranspositionTable.score(entry);
+                int flag = TranspositionTable.flag(entry);
+                if (flag == TranspositionTable.EXACT) return s;
+                if (flag == TranspositionTable.LOWER && s >= beta) return s;
+                if (flag == TranspositionTable.UPPER && s <= alpha) return s;
+            }
+        }
+
+        int alphaOrig = alpha;
+        int[] moves = orderedMoves(pos, ttMove);
+        int bestScore = -WIN - 1, bestMove = moves[0];
+
+        int i = 0;
+        if (depth >= SPLIT_DEPTH && pool.getParallelism() > 1 && moves.length > 1) {
+            // young brothers wait: eldest child serially, then fork the rest
+            BitBoard child = new BitBoard(pos);
+            child.play(moves[0]);
+            bestScore = -negamax(child, depth - 1, -beta, -alpha, ply + 1);
+            alpha = Math.max(alpha, bestScore);
+            if (alpha < beta) {
+                List<SearchTask> siblings = new ArrayList<>(moves.length - 1);
+                for (int j = 1; j < moves.length; j++) {
+                    BitBoard c = new BitBoard(pos);
+                    c.play(moves[j]);
+                    siblings.add(new SearchTask(c, depth - 1, -beta, -alpha, ply + 1, moves[j]));
+                }
+                for (SearchTask t : RecursiveTask.invokeAll(siblings)) {
+                    int score = -t.join();
+                    if (score > bestScore) {
+                        bestScore = score;
+                        bestMove = t.move;
+                    }
+                }
+                alpha = Math.max(alpha, bestScore);
+            }
+            i = moves.length;
+        }
+        for (; i < moves.length; i++) {
+            BitBoard child = new BitBoard(pos);
+            child.play(moves[i]);
+            int score = -negamax(child, depth - 1, -beta, -alpha, ply + 1);
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = moves[i];
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;
+        }
+
+        if (aborted) return 0;
+        int flag = bestScore <= alphaOrig ? TranspositionTable.UPPER
+                : bestScore >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, bestScore, depth, flag, bestMove);
+        return bestScore;
+    }
+
+    private static int[] orderedMoves(BitBoard pos, int first) {
+        int[] buf = new int[BitBoard.COLS];
+        int n = 0;
+        if (first >= 0 && pos.canPlay(first)) buf[n++] = first;
+        for (int col : ORDER) {
+            if (col != first && pos.canPlay(col)) buf[n++] = col;
+        }
+        return n == buf.length ? buf : java.util.Arrays.copyOf(buf, n);
+    }
+
+    private static int firstLegal(BitBoard pos) {
+        for (int col : ORDER) if (pos.canPlay(col)) return col;
+        return -1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.connectfour;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark for the ConnectAI search: nodes/sec as the ForkJoinPool grows.
+ * The "nodes" secondary result is the nodes/sec figure to compare across parallelism.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ConnectAIBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"10"})
+    public int depth;
+
+    private ConnectAI ai;
+    private BitBoard position;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class NodeCounter {
+        public long nodes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // small table so every search does real work instead of replaying the previous one
+        ai = new ConnectAI(parallelism, Long.MAX_VALUE / 1_000_000L, 16);
+        position = new BitBoard();
+        for (int col : new int[] {3, 3, 2, 4}) position.play(col);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ai.shutdown();
+    }
+
+    @Benchmark
+    public int benchmarkSearch(NodeCounter counter) {
+        long before = ai.nodes();
+        int move = ai.searchDepth(position, depth);
+        counter.nodes += ai.nodes() - before;
+        return move;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(ConnectAIBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -1,14 +1,17 @@
+package com.connectfour;
 
 import java.awt.*;
 import java.io.*;
 import java.net.*;
+import java.util.Arrays;
 import javax.swing.*;
 
 /**
  * Connect Four client with simple Swing GUI.
  *
- * Usage: java ConnectClient <host> <port>
- * Example: java ConnectClient localhost 5000
+ * Usage: java com.connectfour.ConnectClient <host> <port> [--game id]   (--game: via a ClusterRouter)
+ *        java com.connectfour.ConnectClient --observe host:port[,host:port...] [copies]   (see ObserverDashboard)
+ * Example: java com.connectfour.ConnectClient localhost 5000
  *
  * GUI:
  * - Top label shows status (your color and whose turn)
@@ -18,12 +21,14 @@ import javax.swing.*;
 public class ConnectClient {
     private final String host;
     private final int port;
+    private long gameId;   // > 0: connect through a ClusterRouter to this game
     private Socket socket;
     private PrintWriter out;
     private BufferedReader in;
     private int myPlayer = 0;
     private JFrame frame;
     private BoardModel boardModel = new BoardModel();
+    private BoardPanel boardPanel;
     private JLabel statusLabel;
     private JButton[] colButtons = new JButton[Board.COLS];
 
@@ -32,17 +37,43 @@ public class ConnectClient {
         this.port = port;
     }
 
+    public ConnectClient game(long gameId) {
+        this.gameId = gameId;
+        return this;
+    }
+
     public void start() throws IOException {
-        socket = new Socket(host, port);
-        out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream()), true);
-        in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        connect(host, port);
+        String first = null;
+        if (gameId > 0) {
+            // cluster: name the game; the router either proxies or sends us to its node
+            first = in.readLine();
+            if (first != null && first.startsWith("REDIRECT:")) {
+                String target = first.substring(9);
+                int colon = target.lastIndexOf(':');
+                socket.close();
+                connect(target.substring(0, colon), Integer.parseInt(target.substring(colon + 1)));
+                first = null;
+            }
+        }
 
         SwingUtilities.invokeLater(this::createAndShowGUI);
+        if (first != null) {
+            final String msg = first;
+            SwingUtilities.invokeLater(() -> handleServerMessage(msg));
+        }
 
         // reader thread
         new Thread(this::readerLoop, "ServerReader").start();
     }
 
+    private void connect(String host, int port) throws IOException {
+        socket = new Socket(host, port);
+        out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream()), true);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        if (gameId > 0) out.println("GAME:" + gameId);
+    }
+
     private void createAndShowGUI() {
         frame = new JFrame("Connect Four - Client");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -65,7 +96,7 @@ public class ConnectClient {
         }
         frame.add(topButtons, BorderLayout.PAGE_START);
 
-        BoardPanel boardPanel = new BoardPanel(boardModel);
+        boardPanel = new BoardPanel(boardModel);
         frame.add(boardPanel, BorderLayout.CENTER);
 
         frame.setSize(420, 520);
@@ -95,9 +126,7 @@ public class ConnectClient {
         } else if (line.startsWith("INFO:")) {
             statusLabel.setText(line.substring(5));
         } else if (line.startsWith("BOARD:")) {
-            String payload = line.substring(6);
-            boardModel.deserialize(payload);
-            frame.repaint();
+            boardPanel.repaintCells(boardModel.deserialize(line, 6));
         } else if (line.equals("YOUR_TURN")) {
             statusLabel.setText("Your turn (" + (myPlayer == 1 ? "RED" : "BLUE") + ")");
             setButtonsEnabled(true);
@@ -134,6 +163,11 @@ public class ConnectClient {
                 out.flush();
                 statusLabel.setText("Waiting for other player...");
             }
+        } else if (line.startsWith(Admission.BUSY)) {
+            // shed by an overloaded server; it closes the connection right after
+            JOptionPane.showMessageDialog(frame, "Server busy: " + line.substring(Admission.BUSY.length()),
+                    "Server busy", JOptionPane.WARNING_MESSAGE);
+            frame.dispose();
         }else {
             // ignore or show
             //statusLabel.setText(line);
@@ -152,67 +186,119 @@ public class ConnectClient {
     }
 
     public static void main(String[] args) throws Exception {
+        if (args.length >= 1 && args[0].equals("--observe")) {
+            ObserverDashboard.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         String host = "localhost";
         int port = 522;
         if (args.length >= 1) host = args[0];
         if (args.length >= 2) port = Integer.parseInt(args[1]);
         ConnectClient client = new ConnectClient(host, port);
+        if (args.length >= 4 && args[2].equals("--game")) client.game(Long.parseLong(args[3]));
         client.start();
     }
 
-    // small client-side model to render board
-    private static class BoardModel {
+    // small client-side model to render board. Package-private: ObserverDashboard renders
+    // hundreds of these.
+    static class BoardModel {
         private final int[][] grid = new int[Board.ROWS][Board.COLS];
 
-        void deserialize(String s) {
-            // rows separated by ';', cols by ','
-            String[] rows = s.split(";");
-            for (int r = 0; r < Board.ROWS; r++) {
-                if (r < rows.length) {
-                    String[] cols = rows[r].split(",");
-                    for (int c = 0; c < Board.COLS; c++) {
-                        if (c < cols.length) grid[r][c] = Integer.parseInt(cols[c]);
-                        else grid[r][c] = 0;
+        //Bit of cell (r, c) in the changed-cells masks below; 6x7 = 42 cells fit in a long.
+        static long bit(int r, int c) { return 1L << (r * Board.COLS + c); }
+
+        //Parses "rows separated by ';', cols by ','" starting at from, in place: no split, no
+        //substrings, no boxing. Cells missing from the payload are empty.
+        //Returns the mask of cells that changed, so only those need repainting.
+        long deserialize(CharSequence s, int from) {
+            long changed = 0;
+            int r = 0, c = 0, val = 0;
+            for (int i = from, n = s.length(); i <= n; i++) {
+                char ch = i < n ? s.charAt(i) : ';';
+                if (ch >= '0' && ch <= '9') {
+                    val = val * 10 + (ch - '0');
+                } else if (ch == ',' || ch == ';') {
+                    if (r < Board.ROWS && c < Board.COLS) changed |= set(r, c, val);
+                    val = 0;
+                    if (ch == ',') {
+                        c++;
+                    } else {
+                        for (c++; c < Board.COLS && r < Board.ROWS; c++) changed |= set(r, c, 0);
+                        r++;
+                        c = 0;
                     }
-                } else {
-                    for (int c = 0; c < Board.COLS; c++) grid[r][c] = 0;
                 }
             }
+            for (; r < Board.ROWS; r++) {
+                for (c = 0; c < Board.COLS; c++) changed |= set(r, c, 0);
+            }
+            return changed;
+        }
+
+        //Copies a row-major cell array (as filled by ObserverDashboard's reader); returns the changed mask.
+        long copyFrom(byte[] cells) {
+            long changed = 0;
+            for (int r = 0; r < Board.ROWS; r++) {
+                for (int c = 0; c < Board.COLS; c++) changed |= set(r, c, cells[r * Board.COLS + c]);
+            }
+            return changed;
+        }
+
+        private long set(int r, int c, int val) {
+            if (grid[r][c] == val) return 0;
+            grid[r][c] = val;
+            return bit(r, c);
         }
 
         int getCell(int r, int c) { return grid[r][c]; }
     }
 
-    // component to draw grid
-    private static class BoardPanel extends JPanel {
+    // component to draw grid; paints only the cells inside the clip, so repainting a few
+    // changed cells does not redraw the whole board
+    static class BoardPanel extends JPanel {
         private final BoardModel model;
-        private final int cellSize = 60;
+        private final int cellSize;
+        private final int inset;
+
         BoardPanel(BoardModel model) {
+            this(model, 60);
+        }
+
+        BoardPanel(BoardModel model, int cellSize) {
             this.model = model;
+            this.cellSize = cellSize;
+            this.inset = Math.max(1, cellSize / 6);
             setPreferredSize(new Dimension(Board.COLS * cellSize, Board.ROWS * cellSize));
             setBackground(new Color(30, 144, 255)); // board blue-ish
         }
 
+        //Schedules a repaint of just the cells in the mask (see BoardModel.bit).
+        void repaintCells(long changed) {
+            for (long m = changed; m != 0; m &= m - 1) {
+                int i = Long.numberOfTrailingZeros(m);
+                repaint((i % Board.COLS) * cellSize, (i / Board.COLS) * cellSize, cellSize, cellSize);
+            }
+        }
+
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            for (int r = 0; r < Board.ROWS; r++) {
-                for (int c = 0; c < Board.COLS; c++) {
-                    int x = c * cellSize + 10;
-                    int y = r * cellSize + 10;
-                    int d = cellSize - 20;
-                    // empty circle
-                    g.setColor(Color.WHITE);
-                    g.fillOval(x, y, d, d);
-
+            Rectangle clip = g.getClipBounds();
+            int r0 = 0, r1 = Board.ROWS - 1, c0 = 0, c1 = Board.COLS - 1;
+            if (clip != null) {
+                r0 = Math.max(0, clip.y / cellSize);
+                r1 = Math.min(Board.ROWS - 1, (clip.y + clip.height - 1) / cellSize);
+                c0 = Math.max(0, clip.x / cellSize);
+                c1 = Math.min(Board.COLS - 1, (clip.x + clip.width - 1) / cellSize);
+            }
+            int d = cellSize - 2 * inset;
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    int x = c * cellSize + inset;
+                    int y = r * cellSize + inset;
                     int val = model.getCell(r, c);
-                    if (val == 1) {
-                        g.setColor(Color.RED);
-                        g.fillOval(x, y, d, d);
-                    } else if (val == 2) {
-                        g.setColor(Color.BLUE);
-                        g.fillOval(x, y, d, d);
-                    }
+                    g.setColor(val == 1 ? Color.RED : val == 2 ? Color.BLUE : Color.WHITE);
+                    g.fillOval(x, y, d, d);
                 }
             }
         }
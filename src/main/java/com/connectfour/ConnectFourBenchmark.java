@@ -1,3 +1,4 @@
+package com.connectfour;
 
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.results.RunResult;
@@ -9,7 +10,9 @@ import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 
 /**
- * JMH Benchmark for Connect Four Board operations
+ * JMH Benchmark for Connect Four Board operations.
+ * Parameterized by implementation and geometry ("RxCxK": rows x cols, K in a row) so the
+ * ranking of locking strategies can be compared as the board outgrows the cache.
  */
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.SECONDS)
@@ -19,34 +22,49 @@ import java.util.concurrent.TimeUnit;
 @Fork(1)
 public class ConnectFourBenchmark {
 
-    private Board board;
-    private int columnCounter = 0;
+    @Param({"sync", "rwlock", "flatcombining"})
+    public String impl;
+
+    @Param({"6x7x4", "64x64x4", "512x512x4", "2048x2048x4"})
+    public String size;
+
+    private GameBoard board;
+    private GameBoard winnerBoard;
+    private String serialized;
+
+    //Per-thread column cursor: a shared field would be written by every benchmark thread
+    //when run with -t N (racy, and one cache line bouncing between all of them).
+    @State(Scope.Thread)
+    public static class Cursor {
+        int columnCounter;
+    }
 
     @Setup(Level.Iteration)
     public void setup() {
-        board = new Board();
-        columnCounter = 0;
+        String[] g = size.split("x");
+        int rows = Integer.parseInt(g[0]), cols = Integer.parseInt(g[1]), connect = Integer.parseInt(g[2]);
+        board = GameBoard.create(impl, rows, cols, connect);
+
+        // a stack of alternating discs in the middle column; clearing a large board every
+        // invocation would swamp the checkWinner cost, so it is built once
+        winnerBoard = GameBoard.create(impl, rows, cols, connect);
+        for (int i = 0; i < Math.min(6, rows); i++) winnerBoard.drop((i % 2) + 1, cols / 2);
+        serialized = winnerBoard.serialize();
     }
 
     @Benchmark
-    public int benchmarkDrop() {
-        int col = columnCounter % Board.COLS;
-        columnCounter++;
-        int player = (columnCounter % 2) + 1;
-        return board.drop(player, col);
+    public int benchmarkDrop(Cursor cursor) {
+        int col = cursor.columnCounter % board.cols();
+        cursor.columnCounter++;
+        int player = (cursor.columnCounter % 2) + 1;
+        int row = board.drop(player, col);
+        if (row < 0) board.clear();
+        return row;
     }
 
     @Benchmark
     public int benchmarkCheckWinner() {
-        // Setup a board with moves
-        board.clear();
-        board.drop(1, 3);
-        board.drop(2, 3);
-        board.drop(1, 3);
-        board.drop(2, 3);
-        board.drop(1, 3);
-        board.drop(2, 3);
-        return board.checkWinner();
+        return winnerBoard.checkWinner();
     }
 
     @Benchmark
@@ -56,15 +74,14 @@ public class ConnectFourBenchmark {
 
     @Benchmark
     public void benchmarkDeserialize() {
-        String data = "0,0,0,0,0,0,0;0,0,0,0,0,0,0;0,0,0,1,0,0,0;0,0,0,2,0,0,0;0,0,0,1,0,0,0;0,0,0,2,0,0,0";
-        board.deserialize(data);
+        board.deserialize(serialized);
     }
 
     @Benchmark
     public void benchmarkFullGame() {
         board.clear();
         // Simulate a quick game
-        for (int col = 0; col < Board.COLS; col++) {
+        for (int col = 0; col < board.cols(); col++) {
             board.drop(1, col);
             board.checkWinner();
             if (board.isFull()) break;
@@ -0,0 +1,574 @@
+package com.connectfour;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConnectServer {
+    //LOCKED: every PlayerHandler thread enters synchronized handleMove on a synchronized Board.
+    //EVENT_LOOP: handlers publish commands to a GameEventLoop; only its thread touches the
+    //            (unlocked) board, so moves never contend on a monitor. The loop is the game's
+    //            own (started with the game) or a shard of a shared EventLoopGroup.
+    public enum Engine { LOCKED, EVENT_LOOP }
+
+    private final int port;
+    private final GameBoard board;
+    private GameEventLoop loop;       // null for Engine.LOCKED
+    private EventLoopGroup loopGroup; // non-null: loop is a shard shared with other games
+    private long loopId;              // this game's id on a shared loop
+    private final List<Participant> players = Collections.synchronizedList(new ArrayList<>(2));
+    private volatile int currentPlayer = 1;
+    private volatile boolean gameOver = false;
+    private boolean begun = false;   // both seats filled and the first game started; owned like the board
+    //Player connections. Bounded: a game has two seats, and connections beyond that are
+    //spectators, which need no thread (see admission).
+    private ExecutorService pool = Admission.boundedPool("Game", 8, 64);
+    //Bot searches, one at a time, never rejected: the bot is asked at most once per move, so
+    //the queue is as long as the moves it is behind. Its thread exits when idle.
+    private final ThreadPoolExecutor botSearches = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "BotSearch");
+                t.setDaemon(true);
+                return t;
+            });
+    private int resetRequests = 0;
+    private final ConnectAI ai; // null = two human players
+    private int outboundCapacity = 256;
+    private OutboundQueue.SlowConsumerPolicy outboundPolicy = OutboundQueue.SlowConsumerPolicy.COLLAPSE;
+    //Drains every outbound queue. Its queue cannot grow past the connection count: an
+    //OutboundQueue has at most one drain scheduled at a time.
+    private ExecutorService writers =
+            Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    //Connections after the seats are taken watch the game read-only. Fans out on the writers
+    //(looked up per task: executors() may replace them).
+    private final SpectatorHub spectators = new SpectatorHub(1024, r -> writers.execute(r));
+    private boolean ownPools = true;
+    private Admission admission = new Admission(256, Admission.OverloadPolicy.SHED);
+    private int backlog = 50;
+    private final AtomicInteger livePlayers = new AtomicInteger();   // seated humans still connected
+    private Runnable onEmpty;
+    private static final int SPECTATOR_QUEUE = 16;
+    private final Object seating = new Object();
+    private boolean started = false;    // guarded by seating
+    private boolean closed = false;     // guarded by seating: a closed game takes no connection
+    private boolean verbose = true;
+    private ReplicationLog replication;  // null: not replicated
+    private long gameId = 1;
+    private int[] resumeMoves;           // non-null: continue this game instead of starting fresh
+
+    public ConnectServer(int port) { this(port, null, Engine.LOCKED); }
+
+    //ai != null seats a bot as player 2, so a single human can start playing immediately.
+    public ConnectServer(int port, ConnectAI ai, Engine engine) {
+        this(port, ai, engine, "sync");
+    }
+
+    //boardImpl: GameBoard.create name for the LOCKED engine, e.g. "rwlock-fair" so readers
+    //cannot starve moves. The event loop always uses an unlocked board.
+    public ConnectServer(int port, ConnectAI ai, Engine engine, String boardImpl) {
+        this.port = port;
+        this.ai = ai;
+        botSearches.allowCoreThreadTimeOut(true);
+        if (engine == Engine.EVENT_LOOP) {
+            this.board = new BoardUnlocked();
+            this.loop = new GameEventLoop("GameLoop", 1024, this::onCommand);   // started with the game
+        } else {
+            this.board = GameBoard.create(boardImpl);
+            this.loop = null;
+        }
+    }
+
+    //false: no per-connection console output (a ClusterNode hosts many games).
+    public ConnectServer verbose(boolean verbose) {
+        this.verbose = verbose;
+        return this;
+    }
+
+    //Ships every accepted move of this game (as gameId) to a standby. With Ack.SYNC a move is
+    //broadcast only after the standby has it; the wait happens under the move lock (LOCKED)
+    //or on the loop thread (EVENT_LOOP).
+    public ConnectServer replicate(ReplicationLog log, long gameId) {
+        this.replication = log;
+        this.gameId = gameId;
+        return this;
+    }
+
+    //When the seats fill, replay these moves (player << 8 | col, from ReplicationStandby)
+    //and continue the game instead of starting a new one.
+    public ConnectServer resume(int[] moves) {
+        this.resumeMoves = moves;
+        return this;
+    }
+
+    //Bound and slow-consumer policy of each client's outbound queue (see OutboundQueue).
+    public ConnectServer outbound(int capacity, OutboundQueue.SlowConsumerPolicy policy) {
+        this.outboundCapacity = capacity;
+        this.outboundPolicy = policy;
+        return this;
+    }
+
+    //Connection cap and overload policy (see Admission), and the kernel accept backlog that
+    //absorbs bursts under Admission.OverloadPolicy.BLOCK.
+    public ConnectServer admission(Admission admission, int backlog) {
+        this.admission = admission;
+        this.backlog = backlog;
+        return this;
+    }
+
+    //Shared pools instead of this game's own (ClusterNode runs all its games on one set).
+    public ConnectServer executors(ExecutorService connections, ExecutorService writers) {
+        if (ownPools) {
+            this.pool.shutdown();
+            this.writers.shutdown();
+        }
+        this.pool = connections;
+        this.writers = writers;
+        this.ownPools = false;
+        return this;
+    }
+
+    //EVENT_LOOP: run on a shard of a shared group (ClusterNode) instead of a loop thread of
+    //this game's own. id must be unique in the group. No effect on the LOCKED engine.
+    public ConnectServer eventLoops(EventLoopGroup group, long id) {
+        if (loop == null) return this;
+        this.loop = group.register(id, this::onCommand);
+        this.loopGroup = group;
+        this.loopId = id;
+        return this;
+    }
+
+    //Runs once every seated player has disconnected (ClusterNode reclaims the game).
+    public ConnectServer onEmpty(Runnable onEmpty) {
+        this.onEmpty = onEmpty;
+        return this;
+    }
+
+    //Stops the game's own threads. Connections still open are left to fail.
+    public void close() {
+        synchronized (seating) { closed = true; }
+        if (ownPools) {
+            pool.shutdownNow();
+            writers.shutdownNow();
+        }
+        botSearches.shutdownNow();
+        spectators.stop();
+        if (loopGroup != null) {
+            loopGroup.unregister(loopId);
+        } else if (loop != null) {
+            try { loop.stop(); } catch (InterruptedException ignored) {}
+        }
+    }
+
+    public void start() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, backlog)) {
+            System.out.println("Server listening on port " + port);
+            while (true) {
+                Socket s = serverSocket.accept();
+                if (!admission.admit()) {
+                    Admission.reject(s, "Server full, try again later.");
+                    continue;
+                }
+                accept(s);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //Seats the connection while seats are free, starting the game when the last one is taken;
+    //later connections spectate. ClusterNode hands in connections for the games it hosts.
+    //The connection must already be admitted; its permit is released when it ends.
+    public void accept(Socket s) throws IOException {
+        if (!tryAccept(s)) {
+            admission.release();
+            Admission.reject(s, "Game is over, try again.");
+        }
+    }
+
+    //As accept, but a closed game refuses the connection: false, and the caller still owns
+    //the socket and its permit.
+    public boolean tryAccept(Socket s) throws IOException {
+        synchronized (seating) {
+            if (closed) return false;
+            if (!started) {
+                int humans = ai == null ? 2 : 1;
+                PlayerHandler ph = new PlayerHandler(s, players.size() + 1);
+                try {
+                    pool.execute(ph);
+                } catch (RejectedExecutionException e) {
+                    admission.release();
+                    Admission.reject(s, "Server busy, try again later.");
+                    return true;
+                }
+                livePlayers.incrementAndGet();
+                players.add(ph);
+                if (verbose) System.out.println("Player " + ph.playerId + " connected.");
+                ph.send("ASSIGN:" + ph.playerId);
+                ph.send("INFO:Waiting for " + (humans - players.size()) + " more player(s)...");
+                if (players.size() == humans) startGame();
+                return true;
+            }
+            addSpectator(s);   // under seating too, so close() cannot slip in between
+            return true;
+        }
+    }
+
+    //Closes the game to new connections if nobody is seated any more; false if a player got
+    //in first. ClusterNode retires an empty game with this before dropping it.
+    public boolean retire() {
+        synchronized (seating) {
+            if (livePlayers.get() > 0) return false;
+            closed = true;
+            return true;
+        }
+    }
+
+    private void startGame() {
+        started = true;
+        if (ai != null) {
+            players.add(new BotPlayer(2));
+            if (verbose) System.out.println("Player 2 is the AI (" + ai.parallelism() + " threads).");
+        }
+        if (loop != null) {
+            if (loopGroup == null) loop.start();
+            loop.publish(GameEventLoop.CMD_START, loopId, 0, 0);
+        } else {
+            synchronized (this) { beginGame(); }
+        }
+    }
+
+    //Spectators only receive; a write failure or overflow unsubscribes them.
+    private void addSpectator(Socket s) throws IOException {
+        OutboundQueue[] ref = new OutboundQueue[1];
+        OutboundQueue q = new OutboundQueue(new BufferedOutputStream(s.getOutputStream()),
+                SPECTATOR_QUEUE, OutboundQueue.SlowConsumerPolicy.COLLAPSE, writers, () -> {
+                    spectators.unsubscribe(ref[0]);
+                    admission.release();
+                    try { s.close(); } catch (IOException ignored) {}
+                });
+        ref[0] = q;
+        q.offer("INFO:Spectating. " + (spectators.size() + 1) + " watching.");
+        spectators.subscribe(q);
+    }
+
+    private void beginGame() {
+        begun = true;
+        if (resumeMoves != null) resumeGame();
+        else startNewGame();
+    }
+
+    //Runs under this server's monitor (LOCKED) or on the event loop thread (EVENT_LOOP).
+    private void startNewGame() {
+        if (replication != null) replication.reset(gameId);
+        board.clear();
+        gameOver = false;
+        resetRequests = 0;
+        currentPlayer = 1;
+        broadcastInfo("New game started! Player 1 begins.");
+        broadcastBoard();
+        getPlayerHandler(1).send("YOUR_TURN");
+        getPlayerHandler(2).send("OPPONENT_TURN");
+    }
+
+    //Takeover after failover: rebuild the position, then carry on as applyMove would.
+    private void resumeGame() {
+        board.clear();
+        gameOver = false;
+        resetRequests = 0;
+        currentPlayer = 1;
+        for (int m : resumeMoves) {
+            board.drop(m >> 8, m & 0xff);
+            currentPlayer = 3 - (m >> 8);
+        }
+        resumeMoves = null;
+        broadcastInfo("Game resumed after failover.");
+        broadcastBoard();
+        int winner = board.checkWinner();
+        if (winner != 0 || board.isFull()) {
+            gameOver = true;
+            broadcast(winner != 0 ? "WIN:" + winner : "DRAW");
+            return;
+        }
+        getPlayerHandler(currentPlayer).send("YOUR_TURN");
+        getPlayerHandler(3 - currentPlayer).send("OPPONENT_TURN");
+    }
+
+    private Participant getPlayerHandler(int id) {
+        synchronized (players) {
+            for (Participant p : players) if (p.playerId == id) return p;
+        }
+        return null;
+    }
+
+    //Every broadcast is encoded once; players and all spectators share the same frame.
+    private void broadcastBoard() {
+        byte[] frame = OutboundQueue.encode("BOARD:" + board.serialize());
+        synchronized (players) {
+            for (Participant p : players) p.sendFrame(frame);
+        }
+        spectators.publish(frame, true);
+    }
+
+    private void broadcastInfo(String text) {
+        broadcast("INFO:" + text);
+    }
+
+    private void broadcast(String msg) {
+        byte[] frame = OutboundQueue.encode(msg);
+        synchronized (players) {
+            for (Participant p : players) p.sendFrame(frame);
+        }
+        spectators.publish(frame, false);
+    }
+
+    //A seat at the table: either a connected client or the server-side bot.
+    private abstract static class Participant {
+        final int playerId;
+
+        Participant(int playerId) { this.playerId = playerId; }
+
+        abstract void send(String line);
+
+        abstract void sendFrame(byte[] frame);
+    }
+
+    //Bot seat: reacts to YOUR_TURN by searching on the pool, then plays like a client would.
+    private class BotPlayer extends Participant {
+        BotPlayer(int playerId) { super(playerId); }
+
+        @Override
+        void sendFrame(byte[] frame) {
+            // broadcasts carry nothing the bot needs; it reads the board when it is its turn
+        }
+
+        @Override
+        void send(String line) {
+            if (!line.equals("YOUR_TURN")) return;
+            // snapshot here, while the caller owns the game; search off the caller's thread
+            long[] cells = new long[GameBoard.snapshotLength(board.rows(), board.cols())];
+            board.snapshot(cells);
+            int cols = board.cols();
+            BitBoard pos = BitBoard.fromCells((r, c) -> GameBoard.cellOf(cells, cols, r, c), playerId);
+            try {
+                botSearches.execute(() -> {
+                    int col = ai.chooseMove(pos);
+                    if (col >= 0) submitMove(playerId, col);
+                });
+            } catch (RejectedExecutionException e) {
+                // only after close(): the game is over for good
+            }
+        }
+    }
+
+    private class PlayerHandler extends Participant implements Runnable {
+        final Socket socket;
+        private final OutboundQueue out;
+        private BufferedReader in;
+
+        PlayerHandler(Socket socket, int playerId) throws IOException {
+            super(playerId);
+            this.socket = socket;
+            this.out = new OutboundQueue(new BufferedOutputStream(socket.getOutputStream()),
+                    outboundCapacity, outboundPolicy, writers, this::disconnect);
+        }
+
+        //Queues the line; a writer thread from the pool coalesces and flushes it.
+        //Never blocks, so a slow client cannot stall handleMove or the event loop.
+        @Override
+        void send(String line) {
+            out.offer(line);
+        }
+
+        @Override
+        void sendFrame(byte[] frame) {
+            out.offer(frame);
+        }
+
+        private void disconnect() {
+            System.err.println("Player " + playerId + " disconnected: outbound queue overflow or write error.");
+            try { socket.close(); } catch (IOException ignored) {}
+        }
+
+        @Override
+        public void run() {
+            try {
+                in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                send("INFO:You are player " + playerId + " (" + (playerId == 1 ? "RED" : "BLUE") + ")");
+
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.startsWith("MOVE:")) {
+                        submitMove(playerId, Integer.parseInt(line.substring(5)));
+                    } else if (line.equals("RESET")) {
+                        submitReset(playerId);
+                    } else {
+                        send("INFO:Unknown command: " + line);
+                    }
+                }
+            } catch (IOException ex) {
+                System.err.println("Player " + playerId + " disconnected: " + ex.getMessage());
+            } finally {
+                out.close();
+                try { socket.close(); } catch (IOException ignored) {}
+                admission.release();
+                if (livePlayers.decrementAndGet() == 0 && onEmpty != null) onEmpty.run();
+            }
+        }
+    }
+
+    //In-process driving (ServerMoveBenchmark): exactly what a MOVE / RESET line from that
+    //player's connection does, minus reading it from the socket.
+    void move(int player, int col) { submitMove(player, col); }
+    void reset(int player) { submitReset(player); }
+    int turn() { return currentPlayer; }
+    boolean over() { return gameOver; }
+
+    private void submitMove(int player, int col) {
+        if (loop != null) loop.publish(GameEventLoop.CMD_MOVE, loopId, player, col);
+        else handleMove(player, col);
+    }
+
+    private void submitReset(int player) {
+        if (loop != null) loop.publish(GameEventLoop.CMD_RESET, loopId, player, 0);
+        else handleResetRequest();
+    }
+
+    //EVENT_LOOP engine: the only code path that touches the game, always on the loop thread.
+    private void onCommand(int type, long gameId, int player, int col, long enqueuedNanos) {
+        switch (type) {
+            case GameEventLoop.CMD_MOVE: {
+                FlightEvents.Move event = new FlightEvents.Move();
+                event.dequeued(enqueuedNanos);
+                applyMove(player, col, event);
+                break;
+            }
+            case GameEventLoop.CMD_RESET: applyReset(); break;
+            case GameEventLoop.CMD_START: beginGame(); break;
+            default: break;
+        }
+    }
+
+    private void handleMove(int player, int col) {
+        FlightEvents.Move event = new FlightEvents.Move();
+        event.waitFor();
+        synchronized (this) {
+            event.acquired();
+            applyMove(player, col, event);
+        }
+    }
+
+    //Traced as a FlightEvents.Move (free unless recorded).
+    private void applyMove(int player, int col, FlightEvents.Move event) {
+        event.finish(gameId, player, col, playMove(player, col, event));
+    }
+
+    private String playMove(int player, int col, FlightEvents.Move event) {
+        if (!begun) {
+            getPlayerHandler(player).send("INFO:Waiting for an opponent.");
+            return FlightEvents.NOT_STARTED;
+        }
+        if (gameOver) return FlightEvents.GAME_OVER;
+        if (player != currentPlayer) {
+            getPlayerHandler(player).send("INFO:Not your turn.");
+            return FlightEvents.NOT_YOUR_TURN;
+        }
+
+        int row = board.drop(player, col);
+        if (row == -1) {
+            getPlayerHandler(player).send("INFO:Column " + col + " is full.");
+            return FlightEvents.COLUMN_FULL;
+        }
+        if (replication != null) replication.move(gameId, player, col);
+
+        event.broadcasting();
+        broadcastBoard();
+        int winner = board.checkWinner();
+
+        if (winner != 0) {
+            gameOver = true;
+            broadcast("WIN:" + winner);
+            broadcastInfo("Player " + winner + " wins!");
+            return FlightEvents.WON;
+        }
+
+        if (board.isFull()) {
+            gameOver = true;
+            broadcast("DRAW");
+            broadcastInfo("Game is a draw!");
+            return FlightEvents.DRAWN;
+        }
+
+        currentPlayer = (currentPlayer == 1) ? 2 : 1;
+        getPlayerHandler(currentPlayer).send("YOUR_TURN");
+        getPlayerHandler(3 - currentPlayer).send("OPPONENT_TURN");
+        return FlightEvents.PLAYED;
+    }
+
+    private synchronized void handleResetRequest() {
+        applyReset();
+    }
+
+    private void applyReset() {
+        if (!begun) return;   // nothing to rematch yet
+        resetRequests++;
+        int needed = ai == null ? 2 : 1; // the bot is always ready for a rematch
+        broadcastInfo("Reset request: " + resetRequests + "/" + needed + " players ready.");
+        if (resetRequests >= needed) {
+            startNewGame();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Usage: java com.connectfour.ConnectServer [port] [--bot [budgetMillis [threads]]] [--engine locked|eventloop]
+        //                          [--outbound capacity drop|collapse|disconnect]
+        //                          [--board sync|rwlock|rwlock-fair|flatcombining]
+        //                          [--replicate standbyHost:port sync|async]
+        //                          [--max-connections n] [--overload shed|block] [--backlog n]
+        int port = 5000;
+        ConnectAI ai = null;
+        Engine engine = Engine.LOCKED;
+        int outboundCapacity = 256;
+        OutboundQueue.SlowConsumerPolicy policy = OutboundQueue.SlowConsumerPolicy.COLLAPSE;
+        String boardImpl = "sync";
+        ReplicationLog replication = null;
+        int maxConnections = 256;
+        Admission.OverloadPolicy overload = Admission.OverloadPolicy.SHED;
+        int backlog = 50;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--bot")) {
+                long budget = 500;
+                int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) budget = Long.parseLong(args[++i]);
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) threads = Integer.parseInt(args[++i]);
+                ai = new ConnectAI(threads, budget);
+            } else if (args[i].equals("--engine") && i + 1 < args.length) {
+                engine = args[++i].equals("eventloop") ? Engine.EVENT_LOOP : Engine.LOCKED;
+            } else if (args[i].equals("--outbound") && i + 2 < args.length) {
+                outboundCapacity = Integer.parseInt(args[++i]);
+                policy = OutboundQueue.SlowConsumerPolicy.valueOf(args[++i].toUpperCase());
+            } else if (args[i].equals("--board") && i + 1 < args.length) {
+                boardImpl = args[++i];
+            } else if (args[i].equals("--replicate") && i + 2 < args.length) {
+                String standby = args[++i];
+                replication = new ReplicationLog(ReplicationLog.address(standby),
+                        ReplicationLog.Ack.valueOf(args[++i].toUpperCase()));
+            } else if (args[i].equals("--max-connections") && i + 1 < args.length) {
+                maxConnections = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--overload") && i + 1 < args.length) {
+                overload = Admission.OverloadPolicy.valueOf(args[++i].toUpperCase());
+            } else if (args[i].equals("--backlog") && i + 1 < args.length) {
+                backlog = Integer.parseInt(args[++i]);
+            } else {
+                port = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.println("Engine: " + engine + (engine == Engine.LOCKED ? ", board: " + boardImpl : "")
+                + (replication != null ? ", replication: " + replication.ack().name().toLowerCase() : ""));
+        ConnectServer server = new ConnectServer(port, ai, engine, boardImpl).outbound(outboundCapacity, policy)
+                .admission(new Admission(maxConnections, overload), backlog);
+        if (replication != null) server.replicate(replication, 1);
+        server.start();
+    }
+}
@@ -0,0 +1,150 @@
+package com.connectfour;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Load test of the real ConnectServer engines, in process: LOCKED (client threads enter the
+ * game's synchronized move handler) versus EVENT_LOOP with a loop thread per game (what a
+ * standalone ConnectServer runs) versus EVENT_LOOP on a shared EventLoopGroup (what
+ * ClusterNode runs: `shards` loop threads for all games).
+ *
+ * HOW IT WORKS:
+ * - Every game is a ConnectServer whose two players are ServerMoveBenchmark.SinkSockets
+ *   (writes discarded, reads block), and whose outbound queues drain inline, so a move is
+ *   the full server path: handleMove / loop command -> drop -> broadcast -> win check.
+ * - Each client thread owns games/clients games and is closed-loop like a real player: it
+ *   sends a legal move (server.move, exactly what a MOVE line does) and waits until the
+ *   game has applied it before the next one. Latency is that round trip. A finished game
+ *   is rematched (both players RESET) outside the measurement.
+ *
+ * Usage: java com.connectfour.EventLoopBenchmark [games] [seconds] [shards]
+ */
+public class EventLoopBenchmark {
+    private static final int[] CLIENTS = {1, 2, 4, 8, 16, 32};
+    private static final String[] ENGINES = {"locked", "eventloop", "eventloop-shared"};
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int shards = args.length > 2 ? Integer.parseInt(args[2])
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+        System.out.println("=== ConnectServer Engines: Locked vs Event Loop ===");
+        System.out.printf("Games: %d  Duration: %ds  Shared-loop shards: %d  Cores: %d%n%n",
+                games, seconds, shards, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %-17s %14s   %s%n", "Clients", "Engine", "moves/sec", "latency");
+        for (int clients : CLIENTS) {
+            if (clients > games) break;
+            for (String engine : ENGINES) {
+                Result r = run(engine, games, clients, seconds, shards);
+                System.out.printf("%-8s %-17s %,14.0f   %s%n", engine.equals(ENGINES[0]) ? String.valueOf(clients) : "",
+                        engine, r.movesPerSec, r.latency.summary());
+            }
+        }
+    }
+
+    static final class Result {
+        double movesPerSec;
+        final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    private static Result run(String engine, int games, int clients, int seconds, int shards) throws Exception {
+        ConnectServer.Engine e = engine.equals("locked") ? ConnectServer.Engine.LOCKED : ConnectServer.Engine.EVENT_LOOP;
+        EventLoopGroup group = engine.equals("eventloop-shared") ? new EventLoopGroup("Shard", shards, 4096) : null;
+        ExecutorService handlers = Executors.newCachedThreadPool();   // PlayerHandler threads, parked on their sinks
+        ExecutorService writers = new ServerMoveBenchmark.DirectExecutor();
+        ConnectServer[] servers = new ConnectServer[games];
+        List<ServerMoveBenchmark.SinkSocket> sockets = new ArrayList<>();
+        try {
+            for (int g = 0; g < games; g++) {
+                ConnectServer server = new ConnectServer(0, null, e, "sync").verbose(false).executors(handlers, writers);
+                if (group != null) server.eventLoops(group, g);
+                for (int seat = 0; seat < 2; seat++) {
+                    ServerMoveBenchmark.SinkSocket s = new ServerMoveBenchmark.SinkSocket();
+                    sockets.add(s);
+                    server.accept(s);
+                }
+                servers[g] = server;
+            }
+            return drive(servers, clients, seconds);
+        } finally {
+            for (ConnectServer server : servers) if (server != null) server.close();
+            for (ServerMoveBenchmark.SinkSocket s : sockets) s.close();
+            handlers.shutdown();
+            if (group != null) group.stop();
+        }
+    }
+
+    private static Result drive(ConnectServer[] servers, int clients, int seconds) throws Exception {
+        LatencyHistogram[] hist = new LatencyHistogram[clients];
+        long[] counts = new long[clients];
+        CountDownLatch finished = new CountDownLatch(clients);
+        long warmupEnd = System.nanoTime() + 1_000_000_000L;
+        long end = warmupEnd + seconds * 1_000_000_000L;
+
+        for (int t = 0; t < clients; t++) {
+            final int client = t;
+            hist[t] = new LatencyHistogram();
+            new Thread(() -> {
+                // this client's games: client, client + clients, ...
+                int owned = (servers.length - client + clients - 1) / clients;
+                int[][] heights = new int[owned][Board.COLS];
+                long seed = 0x9E3779B97F4A7C15L * (client + 1);
+                long n = 0;
+                int next = 0;
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    ConnectServer server = servers[client + next * clients];
+                    int[] h = heights[next];
+                    next = next + 1 == owned ? 0 : next + 1;
+                    int player = server.turn();
+                    seed ^= seed << 13;
+                    seed ^= seed >>> 7;
+                    seed ^= seed << 17;
+                    int col = (int) ((seed >>> 33) % Board.COLS);
+                    while (h[col] == Board.ROWS) col = col + 1 == Board.COLS ? 0 : col + 1;
+                    server.move(player, col);
+                    h[col]++;
+                    awaitApplied(server, player);
+                    if (now >= warmupEnd) {
+                        hist[client].record(System.nanoTime() - now);
+                        n++;
+                    }
+                    if (server.over()) {
+                        server.reset(1);
+                        server.reset(2);
+                        for (int spins = 0; server.over() || server.turn() != 1; spins++) pause(spins);
+                        Arrays.fill(h, 0);
+                    }
+                }
+                counts[client] = n;
+                finished.countDown();
+            }, "Client-" + t).start();
+        }
+        finished.await();
+
+        Result r = new Result();
+        long total = 0;
+        for (int t = 0; t < clients; t++) {
+            total += counts[t];
+            r.latency.merge(hist[t]);
+        }
+        r.movesPerSec = total / (double) seconds;
+        return r;
+    }
+
+    //EVENT_LOOP moves are asynchronous: applied once the turn has passed or the game ended.
+    private static void awaitApplied(ConnectServer server, int player) {
+        for (int spins = 0; server.turn() == player && !server.over(); spins++) pause(spins);
+    }
+
+    private static void pause(int spins) {
+        if (spins < 100) Thread.onSpinWait();
+        else Thread.yield();   // don't starve the loop threads when cores are scarce
+    }
+}
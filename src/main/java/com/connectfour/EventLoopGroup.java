@@ -0,0 +1,50 @@
+package com.connectfour;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A fixed set of GameEventLoops shared by many games, so a node runs `shards` loop threads
+ * whatever the number of games it hosts (instead of one loop thread per game).
+ *
+ * HOW IT WORKS:
+ * - A game registers its command handler under its id and is pinned to shard id % shards;
+ *   its commands go into that shard's ring with the game id, and the shard's thread looks
+ *   the handler up and runs it. Every game's state is still touched by one thread only.
+ * - Commands still queued for a game that has unregistered are dropped.
+ * - A handler that blocks (e.g. waiting for a SYNC replication ack) stalls every game of
+ *   its shard, not just its own.
+ */
+public class EventLoopGroup {
+    private final GameEventLoop[] loops;
+    private final ConcurrentHashMap<Long, MpscRingBuffer.Handler> games = new ConcurrentHashMap<>();
+
+    public EventLoopGroup(String name, int shards, int ringCapacity) {
+        if (shards < 1) throw new IllegalArgumentException("shards must be >= 1: " + shards);
+        loops = new GameEventLoop[shards];
+        for (int i = 0; i < shards; i++) {
+            loops[i] = new GameEventLoop(name + "-" + i, ringCapacity, this::dispatch).start();
+        }
+    }
+
+    //Returns the loop to publish this game's commands to (with gameId as the id).
+    public GameEventLoop register(long gameId, MpscRingBuffer.Handler handler) {
+        games.put(gameId, handler);
+        return loops[(int) Math.floorMod(gameId, (long) loops.length)];
+    }
+
+    public void unregister(long gameId) {
+        games.remove(gameId);
+    }
+
+    private void dispatch(int type, long gameId, int player, int col, long enqueuedNanos) {
+        MpscRingBuffer.Handler h = games.get(gameId);
+        if (h != null) h.onCommand(type, gameId, player, col, enqueuedNanos);
+    }
+
+    public int shards() { return loops.length; }
+    public int games() { return games.size(); }
+
+    public void stop() throws InterruptedException {
+        for (GameEventLoop l : loops) l.stop();
+    }
+}
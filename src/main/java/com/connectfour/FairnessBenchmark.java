@@ -0,0 +1,80 @@
+package com.connectfour;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test: writer starvation under read-heavy load.
+ *
+ * R reader threads saturate one board with reads (serialize + checkWinner, like spectators
+ * rendering it) while W writer threads each try to drop a disc every intervalMicros.
+ * Drops are scheduled at a fixed rate and timed from their scheduled start, so a drop stuck
+ * behind readers is charged for the full wait (no coordinated omission).
+ *
+ * Reports the writer wait distribution, the longest wait (max starvation) and reader
+ * throughput for every board implementation, non-fair and fair read-write lock included.
+ *
+ * Usage: java com.connectfour.FairnessBenchmark [readers] [writers] [intervalMicros] [seconds]
+ */
+public class FairnessBenchmark {
+    private static final String[] IMPLS = {"sync", "rwlock", "rwlock-fair", "flatcombining"};
+
+    public static void main(String[] args) throws InterruptedException {
+        int readers = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(2, Runtime.getRuntime().availableProcessors());
+        int writers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int intervalMicros = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        System.out.println("=== Writer Starvation Under Read-Heavy Load ===");
+        System.out.printf("Readers: %d (saturating)   Writers: %d (one drop every %dus each)   Duration: %ds%n%n",
+                readers, writers, intervalMicros, seconds);
+        System.out.printf("%-14s %14s %10s   %s%n", "Board", "reads/sec", "drops", "drop wait");
+        for (String impl : IMPLS) {
+            run(impl, readers, writers, intervalMicros, seconds);
+        }
+    }
+
+    private static void run(String impl, int readers, int writers, int intervalMicros, int seconds)
+            throws InterruptedException {
+        GameBoard board = GameBoard.create(impl);
+        LongAdder reads = new LongAdder();
+        LatencyHistogram[] waits = new LatencyHistogram[writers];
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+
+        Thread[] threads = new Thread[readers + writers];
+        for (int r = 0; r < readers; r++) {
+            threads[r] = new Thread(() -> {
+                long n = 0;
+                while ((n & 255) != 0 || System.nanoTime() < end) {
+                    board.serialize();
+                    board.checkWinner();
+                    n++;
+                }
+                reads.add(n);
+            }, "Reader-" + r);
+        }
+        for (int w = 0; w < writers; w++) {
+            LatencyHistogram hist = waits[w] = new LatencyHistogram();
+            int player = w % 2 + 1;
+            threads[readers + w] = new Thread(() -> {
+                long interval = intervalMicros * 1000L;
+                int col = 0;
+                for (long scheduled = start; scheduled < end; scheduled += interval) {
+                    long now;
+                    while ((now = System.nanoTime()) < scheduled) LockSupport.parkNanos(scheduled - now);
+                    if (board.drop(player, col) < 0) board.clear();
+                    col = (col + 1) % board.cols();
+                    hist.record(System.nanoTime() - scheduled);
+                }
+            }, "Writer-" + w);
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        LatencyHistogram all = new LatencyHistogram();
+        for (LatencyHistogram h : waits) all.merge(h);
+        System.out.printf("%-14s %,14.0f %,10d   %s%n", impl, reads.sum() / elapsed, all.count(), all.summary());
+    }
+}
@@ -0,0 +1,95 @@
+package com.connectfour;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JMH Benchmark: false sharing between independent boards and counters.
+ *
+ * Every thread works on its OWN board / counter, so there is no logical contention at all.
+ * - packed: the boards are allocated back to back by one thread (as a server creating
+ *           games in a loop does) and the counters are adjacent longs in one array
+ * - padded: the same, with a cache line between neighbours ("-padded" board variants,
+ *           counters 16 longs apart)
+ * Any throughput gap between the two is cache lines bouncing between cores. Run on a
+ * machine with at least @Threads cores; on fewer cores the threads just take turns.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+public class FalseSharingBenchmark {
+    private static final int MAX_THREADS = 256;
+    private static final int LONGS_PER_LINE = 8;
+    private static final int COUNTER_STRIDE = 2 * LONGS_PER_LINE;   // also defeats adjacent-line prefetch
+
+    @Param({"sync", "rwlock"})
+    public String impl;
+
+    @Param({"packed", "padded"})
+    public String layout;
+
+    private GameBoard[] boards;
+    private long[] counters;
+    private int counterStride;
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    //Which board/counter a benchmark thread owns.
+    @State(Scope.Thread)
+    public static class Owner {
+        int index;
+        int col;
+
+        @Setup(Level.Trial)
+        public void setup(FalseSharingBenchmark shared) {
+            index = shared.nextThread.getAndIncrement();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        boolean padded = layout.equals("padded");
+        boards = new GameBoard[MAX_THREADS];
+        for (int i = 0; i < MAX_THREADS; i++) {
+            boards[i] = GameBoard.create(padded ? impl + "-padded" : impl);
+        }
+        counterStride = padded ? COUNTER_STRIDE : 1;
+        counters = new long[(MAX_THREADS + 2) * counterStride];
+        nextThread.set(0);
+    }
+
+    @Benchmark
+    public int benchmarkOwnBoardDrop(Owner owner) {
+        GameBoard board = boards[owner.index];
+        int col = owner.col++ % GameBoard.COLS;
+        int row = board.drop((col & 1) + 1, col);
+        if (row < 0) board.clear();
+        return row;
+    }
+
+    @Benchmark
+    public int benchmarkOwnBoardCheckWinner(Owner owner) {
+        return boards[owner.index].checkWinner();
+    }
+
+    @Benchmark
+    public long benchmarkOwnCounter(Owner owner) {
+        // +1 keeps counter 0 off the array header's line in the padded layout
+        return ++counters[(owner.index + 1) * counterStride];
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(FalseSharingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,180 @@
+package com.connectfour;
+
+import jdk.jfr.*;
+
+/**
+ * Custom Java Flight Recorder events of the boards, the server and the benchmark harness.
+ *
+ * HOW IT WORKS:
+ * - Each event is a jdk.jfr.Event subclass; the code creates one per operation and
+ *   commits it only if JFR wants it. With no recording, or the event disabled, begin/end/
+ *   shouldCommit are no-ops the JIT folds away and the event object is scalar-replaced, so
+ *   the instrumented paths cost a couple of predictable branches.
+ * - Which events are recorded, and above which duration, is plain JFR settings. The
+ *   defaults below suit a production recording (settings=default): board operations off,
+ *   only moves slower than 10 ms, every harness iteration. connect.jfc turns everything on:
+ *     java -XX:StartFlightRecording:filename=rec.jfr,settings=default,settings=connect.jfc ...
+ * - Lock wait is measured separately from the event duration: waitFor() stamps the time
+ *   before taking the lock, acquired() once it is held.
+ * - FlightReport summarizes a recording into per-operation latency tables.
+ */
+public final class FlightEvents {
+    private FlightEvents() {}
+
+    //Operation names of BoardOp.
+    static final String CLEAR = "clear", DROP = "drop", DROP_BATCH = "dropBatch", GET_CELL = "getCell",
+            SERIALIZE = "serialize", CHECK_WINNER = "checkWinner", IS_FULL = "isFull", SNAPSHOT = "snapshot";
+
+    //Outcomes of Move.
+    static final String PLAYED = "played", WON = "won", DRAWN = "drawn", NOT_YOUR_TURN = "not your turn",
+            COLUMN_FULL = "column full", GAME_OVER = "game over", NOT_STARTED = "not started";
+
+    @Name("connect.BoardOperation")
+    @Label("Board Operation")
+    @Category({"Connect Four", "Board"})
+    @Description("One call on a locking board (Board, BoardRWLock)")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class BoardOp extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Board")
+        String board;
+
+        @Label("Lock Wait")
+        @Timespan
+        long lockWait;
+
+        private long waitStart;
+
+        //Before taking the lock.
+        void waitFor() {
+            if (isEnabled()) {
+                begin();
+                waitStart = System.nanoTime();
+            }
+        }
+
+        //Once the lock is held.
+        void acquired() {
+            if (waitStart != 0) lockWait = System.nanoTime() - waitStart;
+        }
+
+        //After releasing it.
+        void finish(String operation, Object board) {
+            end();
+            if (shouldCommit()) {
+                this.operation = operation;
+                this.board = board.getClass().getSimpleName();
+                commit();
+            }
+        }
+    }
+
+    @Name("connect.Move")
+    @Label("Move")
+    @Category({"Connect Four", "Server"})
+    @Description("One MOVE handled by ConnectServer, from its lock or event-loop queue to the last message queued")
+    @Threshold("10 ms")
+    @StackTrace(false)
+    static final class Move extends Event {
+        @Label("Game")
+        long game;
+
+        @Label("Player")
+        int player;
+
+        @Label("Column")
+        int column;
+
+        @Label("Outcome")
+        String outcome;
+
+        @Label("Wait")
+        @Description("LOCKED engine: wait for the game monitor. EVENT_LOOP engine: time queued for the loop")
+        @Timespan
+        long waited;
+
+        @Label("Broadcast")
+        @Description("From the accepted drop to the last message queued, win check included")
+        @Timespan
+        long broadcast;
+
+        private long waitStart, broadcastStart;
+
+        void waitFor() {
+            if (isEnabled()) {
+                begin();
+                waitStart = System.nanoTime();
+            }
+        }
+
+        void acquired() {
+            if (waitStart != 0) waited = System.nanoTime() - waitStart;
+        }
+
+        //EVENT_LOOP: the command was published at enqueuedNanos.
+        void dequeued(long enqueuedNanos) {
+            if (isEnabled()) {
+                begin();
+                waited = System.nanoTime() - enqueuedNanos;
+            }
+        }
+
+        void broadcasting() {
+            if (isEnabled()) broadcastStart = System.nanoTime();
+        }
+
+        void finish(long game, int player, int column, String outcome) {
+            end();
+            if (shouldCommit()) {
+                if (broadcastStart != 0) broadcast = System.nanoTime() - broadcastStart;
+                this.game = game;
+                this.player = player;
+                this.column = column;
+                this.outcome = outcome;
+                commit();
+            }
+        }
+    }
+
+    @Name("connect.HarnessIteration")
+    @Label("Harness Iteration")
+    @Category({"Connect Four", "Benchmark"})
+    @Description("One time-boxed iteration of the quick benchmark harness")
+    @StackTrace(false)
+    static final class HarnessIteration extends Event {
+        @Label("Test")
+        String test;
+
+        @Label("Implementation")
+        String implementation;
+
+        @Label("Threads")
+        int threads;
+
+        @Label("Iteration")
+        int iteration;
+
+        @Label("Warmup")
+        boolean warmup;
+
+        @Label("Throughput")
+        @Description("Operations per second")
+        double score;
+
+        void finish(String test, String implementation, int threads, int iteration, boolean warmup, double score) {
+            end();
+            if (shouldCommit()) {
+                this.test = test;
+                this.implementation = implementation;
+                this.threads = threads;
+                this.iteration = iteration;
+                this.warmup = warmup;
+                this.score = score;
+                commit();
+            }
+        }
+    }
+}
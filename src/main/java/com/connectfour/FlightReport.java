@@ -0,0 +1,164 @@
+package com.connectfour;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes a JFR recording of the FlightEvents into per-operation latency tables.
+ *
+ * Tables (each only if the recording has such events):
+ * - Board operations per board class and operation: count, duration p50/p99/max, lock wait
+ *   mean/p99.
+ * - Server moves per outcome: count, duration p50/p99/max, wait p99, broadcast p99.
+ * - Harness iterations per implementation and test: measured/warmup count, mean, min and
+ *   max throughput, mean iteration length.
+ * - Contended monitors (jdk.JavaMonitorEnter) per monitor class, which covers the
+ *   synchronized Board from the JVM's side.
+ *
+ * Percentiles come from LatencyHistogram, so they are within ~6%.
+ *
+ * Usage: java com.connectfour.FlightReport <recording.jfr>
+ */
+public class FlightReport {
+    //Durations of one row of a table.
+    private static final class Row {
+        final LatencyHistogram duration = new LatencyHistogram();
+        final LatencyHistogram wait = new LatencyHistogram();
+        final LatencyHistogram broadcast = new LatencyHistogram();
+    }
+
+    //Iterations of one implementation and test.
+    private static final class Iterations {
+        int measured, warmup;
+        double sum, min = Double.MAX_VALUE, max;
+        long nanos;
+    }
+
+    private final Map<String, Row> boardOps = new TreeMap<>();
+    private final Map<String, Row> moves = new TreeMap<>();
+    private final Map<String, Iterations> iterations = new TreeMap<>();
+    private final Map<String, Row> monitors = new TreeMap<>();
+
+    public void read(Path recording) throws IOException {
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) add(file.readEvent());
+        }
+    }
+
+    private void add(RecordedEvent e) {
+        long nanos = e.getDuration().toNanos();
+        switch (e.getEventType().getName()) {
+            case "connect.BoardOperation": {
+                Row row = boardOps.computeIfAbsent(e.getString("board") + " " + e.getString("operation"), k -> new Row());
+                row.duration.record(nanos);
+                row.wait.record(e.getLong("lockWait"));
+                break;
+            }
+            case "connect.Move": {
+                Row row = moves.computeIfAbsent(e.getString("outcome"), k -> new Row());
+                row.duration.record(nanos);
+                row.wait.record(e.getLong("waited"));
+                row.broadcast.record(e.getLong("broadcast"));
+                break;
+            }
+            case "connect.HarnessIteration": {
+                Iterations it = iterations.computeIfAbsent(e.getString("implementation") + " " + e.getString("test"),
+                        k -> new Iterations());
+                if (e.getBoolean("warmup")) {
+                    it.warmup++;
+                } else {
+                    double score = e.getDouble("score");
+                    it.measured++;
+                    it.sum += score;
+                    it.min = Math.min(it.min, score);
+                    it.max = Math.max(it.max, score);
+                    it.nanos += nanos;
+                }
+                break;
+            }
+            case "jdk.JavaMonitorEnter": {
+                RecordedClass monitor = e.getValue("monitorClass");
+                String name = monitor == null ? "?" : monitor.getName();
+                monitors.computeIfAbsent(name, k -> new Row()).duration.record(nanos);
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    public void print() {
+        if (!boardOps.isEmpty()) {
+            System.out.println("Board operations (us)");
+            System.out.printf("%-34s %10s %9s %9s %9s %11s %10s%n",
+                    "Board / operation", "count", "p50", "p99", "max", "wait mean", "wait p99");
+            for (Map.Entry<String, Row> e : boardOps.entrySet()) {
+                Row r = e.getValue();
+                System.out.printf("%-34s %,10d %9.2f %9.2f %9.2f %11.2f %10.2f%n", e.getKey(), r.duration.count(),
+                        us(r.duration.percentile(50)), us(r.duration.percentile(99)), us(r.duration.max()),
+                        r.wait.mean() / 1e3, us(r.wait.percentile(99)));
+            }
+            System.out.println();
+        }
+        if (!moves.isEmpty()) {
+            System.out.println("Server moves (us)");
+            System.out.printf("%-16s %10s %9s %9s %9s %10s %14s%n",
+                    "Outcome", "count", "p50", "p99", "max", "wait p99", "broadcast p99");
+            for (Map.Entry<String, Row> e : moves.entrySet()) {
+                Row r = e.getValue();
+                System.out.printf("%-16s %,10d %9.1f %9.1f %9.1f %10.1f %14.1f%n", e.getKey(), r.duration.count(),
+                        us(r.duration.percentile(50)), us(r.duration.percentile(99)), us(r.duration.max()),
+                        us(r.wait.percentile(99)), us(r.broadcast.percentile(99)));
+            }
+            System.out.println();
+        }
+        if (!iterations.isEmpty()) {
+            System.out.println("Harness iterations (ops/sec)");
+            System.out.printf("%-34s %9s %7s %14s %14s %14s %8s%n",
+                    "Implementation / test", "measured", "warmup", "mean", "min", "max", "ms/iter");
+            for (Map.Entry<String, Iterations> e : iterations.entrySet()) {
+                Iterations it = e.getValue();
+                if (it.measured == 0) {
+                    System.out.printf("%-34s %9d %7d%n", e.getKey(), 0, it.warmup);
+                    continue;
+                }
+                System.out.printf("%-34s %9d %7d %,14.0f %,14.0f %,14.0f %8.1f%n", e.getKey(), it.measured, it.warmup,
+                        it.sum / it.measured, it.min, it.max, it.nanos / 1e6 / it.measured);
+            }
+            System.out.println();
+        }
+        if (!monitors.isEmpty()) {
+            System.out.println("Contended monitors, above the jdk.JavaMonitorEnter threshold (us)");
+            System.out.printf("%-34s %10s %9s %9s %9s%n", "Monitor class", "count", "p50", "p99", "max");
+            for (Map.Entry<String, Row> e : monitors.entrySet()) {
+                LatencyHistogram h = e.getValue().duration;
+                System.out.printf("%-34s %,10d %9.1f %9.1f %9.1f%n", e.getKey(), h.count(),
+                        us(h.percentile(50)), us(h.percentile(99)), us(h.max()));
+            }
+            System.out.println();
+        }
+        if (boardOps.isEmpty() && moves.isEmpty() && iterations.isEmpty() && monitors.isEmpty()) {
+            System.out.println("No Connect Four events in this recording (record with settings=connect.jfc).");
+        }
+    }
+
+    private static double us(long nanos) {
+        return nanos / 1e3;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: java com.connectfour.FlightReport <recording.jfr>");
+            return;
+        }
+        FlightReport report = new FlightReport();
+        report.read(Paths.get(args[0]));
+        report.print();
+    }
+}
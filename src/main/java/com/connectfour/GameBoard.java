@@ -0,0 +1,109 @@
+package com.connectfour;
+
+/**
+ * Operations every Connect Four board implementation offers, so the server and the
+ * benchmark harnesses can swap locking strategies without instanceof chains.
+ * Cell values: 0 = empty, 1 = player1 (red), 2 = player2 (blue). Row 0 is the top row.
+ */
+public interface GameBoard {
+    int ROWS = Board.ROWS;
+    int COLS = Board.COLS;
+    int CONNECT = Board.CONNECT;
+
+    //Geometry of this board: rows x cols, connect() discs in a row win.
+    int rows();
+
+    int cols();
+
+    int connect();
+
+    void clear();
+
+    //Returns row index where placed, or -1 if column full/invalid.
+    int drop(int player, int col);
+
+    //Applies n drops under one lock acquisition; see Board.dropBatch for the contract.
+    int dropBatch(int[] players, int[] cols, int n, int[] rows, boolean checkWin);
+
+    int getCell(int row, int col);
+
+    String serialize();
+
+    void deserialize(String s);
+
+    //Returns 0 if the last move did not win, otherwise the winning player (1 or 2).
+    int checkWinner();
+
+    boolean isFull();
+
+    //snapshot() result when the position is still at sinceVersion (nothing was copied).
+    long UNCHANGED = -1;
+
+    //Version of the position, never negative: +1 on every change (each disc placed, clear,
+    //deserialize). Lock-free, for "has it moved?" polling.
+    long version();
+
+    //Copies the whole position into `into` under ONE lock acquisition, so every cell is from
+    //the same moment, and returns the version copied. Packed 2 bits per cell, row-major
+    //(see cellOf); `into` needs snapshotLength(rows(), cols()) longs and is reusable.
+    //If the board is still at sinceVersion nothing is copied (nor locked): UNCHANGED.
+    long snapshot(long[] into, long sinceVersion);
+
+    default long snapshot(long[] into) {
+        return snapshot(into, UNCHANGED);
+    }
+
+    //Longs a snapshot of a rows x cols board takes: 32 cells per long (one for 6x7).
+    static int snapshotLength(int rows, int cols) {
+        return (rows * cols + 31) >>> 5;
+    }
+
+    //Cell (0/1/2) of a snapshot of a board with `cols` columns.
+    static int cellOf(long[] snapshot, int cols, int row, int col) {
+        int i = row * cols + col;
+        return (int) (snapshot[i >>> 5] >>> ((i & 31) << 1)) & 3;
+    }
+
+    //Packs grid[0..rows)[0..cols) into `into`; the caller holds whatever lock guards grid.
+    static void pack(int[][] grid, int rows, int cols, long[] into) {
+        if (into.length < snapshotLength(rows, cols))
+            throw new IllegalArgumentException("Snapshot buffer of " + into.length + " longs, need " + snapshotLength(rows, cols));
+        long word = 0;
+        int i = 0;
+        for (int r = 0; r < rows; r++) {
+            int[] row = grid[r];
+            for (int c = 0; c < cols; c++, i++) {
+                word |= (long) (row[c] & 3) << ((i & 31) << 1);
+                if ((i & 31) == 31) {
+                    into[i >>> 5] = word;
+                    word = 0;
+                }
+            }
+        }
+        if ((i & 31) != 0) into[i >>> 5] = word;
+    }
+
+    //Factory used by the harnesses and the server: "sync", "rwlock", "flatcombining",
+    //or "unlocked" (single-owner boards only, not thread-safe). "sync-padded" and
+    //"rwlock-padded" pad the rows against false sharing with neighbouring boards;
+    //"rwlock-fair" uses a fair read-write lock so readers cannot starve drops;
+    //"adaptive" switches strategy with the workload, "optimistic" is StampedLock reads.
+    static GameBoard create(String impl) {
+        return create(impl, ROWS, COLS, CONNECT);
+    }
+
+    static GameBoard create(String impl, int rows, int cols, int connect) {
+        switch (impl) {
+            case "sync": return new Board(rows, cols, connect);
+            case "rwlock": return new BoardRWLock(rows, cols, connect);
+            case "sync-padded": return new Board(rows, cols, connect, true);
+            case "rwlock-padded": return new BoardRWLock(rows, cols, connect, true);
+            case "rwlock-fair": return new BoardRWLock(rows, cols, connect, false, true);
+            case "flatcombining": return new BoardFlatCombining(rows, cols, connect);
+            case "adaptive": return new BoardAdaptive(rows, cols, connect);
+            case "optimistic": return new BoardAdaptive(rows, cols, connect, BoardAdaptive.Mode.OPTIMISTIC);
+            case "unlocked": return new BoardUnlocked(rows, cols, connect);
+            default: throw new IllegalArgumentException("Unknown board implementation: " + impl);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.connectfour;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-writer event loop: one thread owns a shard of games and is the ONLY thread that
+ * ever touches their boards, so the boards need no locking at all (see BoardUnlocked).
+ *
+ * Other threads never call into the game directly; they publish commands into the
+ * loop's MpscRingBuffer and the loop applies them one after another.
+ * Idle strategy: spin, then yield, then park briefly, so an idle loop does not burn a core.
+ * A command that throws is logged and skipped: the loop may serve many games (see
+ * EventLoopGroup), and one game's bug must not stop the others or leave producers
+ * spinning on a full ring.
+ */
+public class GameEventLoop implements Runnable {
+    public static final int CMD_MOVE = 1;
+    public static final int CMD_RESET = 2;
+    public static final int CMD_START = 3;
+
+    private static final int DRAIN_BATCH = 256;
+
+    private final MpscRingBuffer ring;
+    private final MpscRingBuffer.Handler handler;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean idle;  // set while parked so producers know to unpark
+
+    public GameEventLoop(String name, int ringCapacity, MpscRingBuffer.Handler handler) {
+        this.ring = new MpscRingBuffer(ringCapacity);
+        this.handler = (type, gameId, player, col, enqueuedNanos) -> {
+            try {
+                handler.onCommand(type, gameId, player, col, enqueuedNanos);
+            } catch (RuntimeException e) {
+                System.err.println(name + ": command " + type + " of game " + gameId + " failed: " + e);
+            }
+        };
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+    }
+
+    public GameEventLoop start() {
+        thread.start();
+        return this;
+    }
+
+    //Called from any thread.
+    public void publish(int type, long gameId, int player, int col) {
+        ring.publish(type, gameId, player, col);
+        if (idle) LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        int idleRounds = 0;
+        while (running) {
+            int n = ring.drain(handler, DRAIN_BATCH);
+            if (n > 0) {
+                idleRounds = 0;
+                continue;
+            }
+            idleRounds++;
+            if (idleRounds < 100) {
+                Thread.onSpinWait();
+            } else if (idleRounds < 200) {
+                Thread.yield();
+            } else {
+                idle = true;
+                if (ring.size() == 0) LockSupport.parkNanos(1_000_000L);
+                idle = false;
+            }
+        }
+        ring.drain(handler, Integer.MAX_VALUE); // flush what was already queued
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    public boolean isLoopThread() {
+        return Thread.currentThread() == thread;
+    }
+}
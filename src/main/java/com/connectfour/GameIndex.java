@@ -0,0 +1,196 @@
+package com.connectfour;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent game index: primitive long game id -> int slot, for millions of live games.
+ *
+ * LAYOUT: open addressing with linear probing over two parallel arrays
+ *   keys   (AtomicLongArray)    0 = empty, -1 = tombstone, otherwise the game id (> 0)
+ *   values (AtomicIntegerArray) -1 = no value yet / removed
+ * About 12 bytes per table slot and no objects per entry, versus a boxed Long key,
+ * boxed value and a Node (plus pointer chasing) per entry in ConcurrentHashMap<Long, ...>.
+ *
+ * CONCURRENCY:
+ * - get() is lock-free: it just probes the current table with volatile reads.
+ * - Writers lock one of STRIPES locks chosen by the id's hash, so two writers of the same id
+ *   are serialized (no duplicate keys) while different ids proceed in parallel; claiming an
+ *   empty or tombstone slot is a CAS, which settles races between stripes.
+ * - Resize and tombstone cleanup take every stripe lock, copy the live entries into a new
+ *   table and publish it with one volatile write. Readers still on the old table see a
+ *   frozen, consistent copy.
+ */
+public class GameIndex {
+    public static final int NO_SLOT = -1;
+
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+    private static final int STRIPES = 64;
+    private static final double MAX_LOAD = 0.6;        // live + tombstones, triggers rebuild
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        final AtomicIntegerArray values;
+        final int mask;
+
+        Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            values = new AtomicIntegerArray(capacity);
+            for (int i = 0; i < capacity; i++) values.set(i, NO_SLOT);
+            mask = capacity - 1;
+        }
+    }
+
+    private volatile Table table;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final LongAdder live = new LongAdder();
+    private final LongAdder used = new LongAdder();     // non-empty slots (live + tombstones)
+
+    public GameIndex(int expectedGames) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedGames / MAX_LOAD)) - 1) << 1;
+        table = new Table(capacity);
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    //Lock-free lookup. Returns NO_SLOT when the id is unknown.
+    public int get(long id) {
+        Table t = table;
+        int i = index(id, t.mask);
+        for (int probes = 0; probes <= t.mask; probes++) {
+            long k = t.keys.get(i);
+            if (k == id) return t.values.get(i);
+            if (k == EMPTY) return NO_SLOT;
+            i = (i + 1) & t.mask;                      // skip other ids and tombstones
+        }
+        return NO_SLOT;                                // a full table without the id
+    }
+
+    public void put(long id, int slot) {
+        if (id <= 0) throw new IllegalArgumentException("game id must be > 0: " + id);
+        ReentrantLock lock = stripes[stripe(id)];
+        while (true) {
+            // check the load before claiming: writers on other stripes may be claiming too
+            if (used.sum() >= (table.mask + 1) * MAX_LOAD) rebuild();
+            boolean done;
+            lock.lock();
+            try {
+                done = tryPut(table, id, slot);
+            } finally {
+                lock.unlock();
+            }
+            if (done) return;
+            rebuild();   // filled up by concurrent writers; rebuild needs every stripe, so not under ours
+        }
+    }
+
+    private boolean tryPut(Table t, long id, int slot) {
+        int i = index(id, t.mask);
+        int firstTombstone = -1;
+        for (int probes = 0; probes <= t.mask; probes++) {
+            long k = t.keys.get(i);
+            if (k == id) {
+                t.values.set(i, slot);
+                return true;
+            }
+            if (k == TOMBSTONE && firstTombstone < 0) firstTombstone = i;
+            if (k == EMPTY) {
+                // id is absent (same-id writers hold our stripe); reuse a tombstone if we passed one
+                if (firstTombstone >= 0 && claim(t, firstTombstone, TOMBSTONE, id, slot)) return true;
+                if (claim(t, i, EMPTY, id, slot)) {
+                    used.increment();
+                    return true;
+                }
+                firstTombstone = -1;
+                continue;                              // another stripe took it; look again from here
+            }
+            i = (i + 1) & t.mask;
+        }
+        return false; // table full of other keys and tombstones: the caller rebuilds
+    }
+
+    private boolean claim(Table t, int i, long expected, long id, int slot) {
+        if (!t.keys.compareAndSet(i, expected, id)) return false;
+        t.values.set(i, slot);                          // readers treat NO_SLOT as absent until here
+        live.increment();
+        return true;
+    }
+
+    //Removes a finished game. Its slot becomes a tombstone until the next cleanup.
+    public int remove(long id) {
+        ReentrantLock lock = stripes[stripe(id)];
+        lock.lock();
+        try {
+            Table t = table;
+            int i = index(id, t.mask);
+            for (int probes = 0; probes <= t.mask; probes++) {
+                long k = t.keys.get(i);
+                if (k == EMPTY) return NO_SLOT;
+                if (k == id) {
+                    int old = t.values.getAndSet(i, NO_SLOT);
+                    t.keys.set(i, TOMBSTONE);
+                    live.decrement();
+                    return old;
+                }
+                i = (i + 1) & t.mask;
+            }
+            return NO_SLOT;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Drops all tombstones now (also happens automatically when they push the load too high).
+    public void cleanup() {
+        rebuild();
+    }
+
+    //Rehashes live entries into a fresh table, doubling only if the live entries need it.
+    private void rebuild() {
+        for (ReentrantLock l : stripes) l.lock();
+        try {
+            Table old = table;
+            int capacity = old.mask + 1;
+            if (used.sum() < capacity * MAX_LOAD && tombstones() == 0) return; // someone else did it
+            long liveCount = live.sum();
+            int newCapacity = liveCount > capacity * MAX_LOAD / 2 ? capacity * 2 : capacity;
+            Table t = new Table(newCapacity);
+            long copied = 0;
+            for (int i = 0; i <= old.mask; i++) {
+                long k = old.keys.get(i);
+                if (k > 0) {
+                    int j = index(k, t.mask);
+                    while (t.keys.get(j) != EMPTY) j = (j + 1) & t.mask;
+                    t.keys.set(j, k);
+                    t.values.set(j, old.values.get(i));
+                    copied++;
+                }
+            }
+            used.reset();
+            used.add(copied);
+            table = t;
+        } finally {
+            for (ReentrantLock l : stripes) l.unlock();
+        }
+    }
+
+    public long size() { return live.sum(); }
+    public long tombstones() { return used.sum() - live.sum(); }
+    public int capacity() { return table.mask + 1; }
+
+    //Approximate heap footprint of the table arrays.
+    public long footprintBytes() {
+        return (long) capacity() * (Long.BYTES + Integer.BYTES);
+    }
+
+    private static int index(long id, int mask) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int stripe(long id) {
+        return (int) ((id * 0xC2B2AE3D27D4EB4FL) >>> 58);   // top 6 bits -> 0..63
+    }
+}
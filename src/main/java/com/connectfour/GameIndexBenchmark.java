@@ -0,0 +1,107 @@
+package com.connectfour;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark: game id lookups in GameIndex versus ConcurrentHashMap<Long, Integer>.
+ * Ids are scattered (i * odd constant) like real generated ids; every lookup hits.
+ * main() first prints heap bytes per entry for both, then runs the JMH suite.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx6g"})
+@Threads(4)
+public class GameIndexBenchmark {
+    private static final long ID_MULTIPLIER = 0x9E3779B97F4A7C15L; // odd: distinct i -> distinct ids
+
+    @Param({"1000000", "10000000"})
+    public int games;
+
+    @Param({"index", "chm"})
+    public String impl;
+
+    private GameIndex index;
+    private ConcurrentHashMap<Long, Integer> map;
+
+    static long gameId(int i) {
+        return ((i + 1L) * ID_MULTIPLIER) & Long.MAX_VALUE;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (impl.equals("index")) {
+            index = new GameIndex(games);
+            for (int i = 0; i < games; i++) index.put(gameId(i), i);
+        } else {
+            map = new ConcurrentHashMap<>(games);
+            for (int i = 0; i < games; i++) map.put(gameId(i), i);
+        }
+    }
+
+    @Benchmark
+    public int benchmarkLookup() {
+        long id = gameId(ThreadLocalRandom.current().nextInt(games));
+        if (index != null) return index.get(id);
+        Integer slot = map.get(id);   // autoboxes the key on every lookup
+        return slot == null ? -1 : slot;
+    }
+
+    @Benchmark
+    public int benchmarkReplace() {
+        // a game finishing and a new one taking its slot: remove + put of the same id
+        int i = ThreadLocalRandom.current().nextInt(games);
+        long id = gameId(i);
+        if (index != null) {
+            index.remove(id);
+            index.put(id, i);
+        } else {
+            map.remove(id);
+            map.put(id, i);
+        }
+        return i;
+    }
+
+    //Heap bytes per entry, measured from used heap before/after filling (run with -Xmx6g).
+    static void printFootprint(int games) {
+        long base = usedHeap();
+        GameIndex idx = new GameIndex(games);
+        for (int i = 0; i < games; i++) idx.put(gameId(i), i);
+        long idxBytes = usedHeap() - base;
+        System.out.printf("%,12d games  GameIndex:          %6.1f bytes/entry (table %,d slots)%n",
+                games, idxBytes / (double) games, idx.capacity());
+        idx = null;
+
+        base = usedHeap();
+        ConcurrentHashMap<Long, Integer> m = new ConcurrentHashMap<>(games);
+        for (int i = 0; i < games; i++) m.put(gameId(i), i);
+        long mapBytes = usedHeap() - base;
+        System.out.printf("%,12d games  ConcurrentHashMap:  %6.1f bytes/entry%n",
+                games, mapBytes / (double) m.size());
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== Footprint ===");
+        for (int games : new int[] {1_000_000, 5_000_000, 10_000_000}) printFootprint(games);
+
+        Options opt = new OptionsBuilder()
+                .include(GameIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
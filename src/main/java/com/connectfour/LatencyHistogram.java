@@ -0,0 +1,75 @@
+package com.connectfour;
+
+/**
+ * Small log-linear latency histogram (nanoseconds) for the hand-rolled load tests.
+ *
+ * Buckets: every power of two is split into 16 linear sub-buckets, so any recorded value
+ * is reported within ~6% while record() stays O(1) and allocation free.
+ * Not thread-safe: give each recording thread its own histogram and merge() them at the end.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BITS + 1) * SUB];
+    private long total;
+    private long max;
+    private long sum;
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[index(nanos)]++;
+        total++;
+        sum += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        total += other.total;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        java.util.Arrays.fill(counts, 0);
+        total = sum = max = 0;
+    }
+
+    public long count() { return total; }
+    public long max() { return max; }
+    public double mean() { return total == 0 ? 0 : (double) sum / total; }
+
+    //Value at the given percentile (0-100), in nanoseconds.
+    public long percentile(double p) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(p / 100.0 * total);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    //One-line summary in microseconds, used by the load-test reports.
+    public String summary() {
+        return String.format("p50 %,.1f us  p99 %,.1f us  p99.9 %,.1f us  max %,.1f us",
+                percentile(50) / 1e3, percentile(99) / 1e3, percentile(99.9) / 1e3, max / 1e3);
+    }
+
+    private static int index(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);             // >= SUB_BITS
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    private static long upperBound(int i) {
+        if (i < SUB) return i;
+        int exp = i / SUB + SUB_BITS - 1;
+        long sub = i % SUB;
+        return ((SUB + sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+}
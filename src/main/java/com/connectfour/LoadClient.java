@@ -0,0 +1,111 @@
+package com.connectfour;
+
+import java.io.*;
+import java.net.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One seat of one game on loopback, playing random legal moves as fast as the server
+ * answers: the client of the cluster load tests (ClusterBenchmark, ReplicationBenchmark,
+ * OverloadTest).
+ *
+ * HOW IT WORKS:
+ * - Connects, names its game ("GAME:<id>") and, when talking to a ClusterRouter, follows
+ *   its "REDIRECT:host:port" to the owning node. Asks for a rematch after every win or draw.
+ * - A move counts when its BOARD comes back. Between startWindow() and endWindow() its
+ *   latency (MOVE sent to BOARD received) is recorded too; the window is swapped under a
+ *   lock, so the histogram endWindow() hands back is no longer written to and can be merged.
+ */
+public final class LoadClient extends Thread {
+    private final int port;
+    private final long gameId;
+    private final LongAdder moves;
+    private final Object windowLock = new Object();
+    private LatencyHistogram window;   // guarded by windowLock; null outside a window
+    private volatile Socket socket;
+    private volatile boolean closed;
+
+    public LoadClient(int port, long gameId, LongAdder moves) {
+        super("Game-" + gameId);
+        this.port = port;
+        this.gameId = gameId;
+        this.moves = moves;
+        setDaemon(true);
+    }
+
+    public void startWindow() {
+        synchronized (windowLock) {
+            window = new LatencyHistogram();
+        }
+    }
+
+    //The latencies recorded since startWindow() (empty if none was started).
+    public LatencyHistogram endWindow() {
+        synchronized (windowLock) {
+            LatencyHistogram h = window;
+            window = null;
+            return h != null ? h : new LatencyHistogram();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            BufferedReader in = connect(InetAddress.getLoopbackAddress().getHostAddress(), port);
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream()), true);
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            long sentAt = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.equals("YOUR_TURN") || line.startsWith("INFO:Column")) {
+                    sentAt = System.nanoTime();
+                    out.println("MOVE:" + rnd.nextInt(Board.COLS));
+                } else if (line.startsWith("BOARD:")) {
+                    if (sentAt != 0) {
+                        moves.increment();
+                        synchronized (windowLock) {
+                            if (window != null) window.record(System.nanoTime() - sentAt);
+                        }
+                    }
+                    sentAt = 0;
+                } else if (line.startsWith("WIN:") || line.equals("DRAW")) {
+                    out.println("RESET");
+                } else if (line.startsWith("REDIRECT:")) {
+                    String target = line.substring(9);
+                    int colon = target.lastIndexOf(':');
+                    socket.close();
+                    in = connect(target.substring(0, colon), Integer.parseInt(target.substring(colon + 1)));
+                    out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream()), true);
+                } else if (line.startsWith(Admission.BUSY)) {
+                    System.err.println("Game " + gameId + " refused: " + line);
+                }
+            }
+        } catch (IOException ignored) {
+            // closed at the end of the run
+        }
+    }
+
+    private BufferedReader connect(String host, int port) throws IOException {
+        Socket s = new Socket(host, port);
+        s.setTcpNoDelay(true);
+        socket = s;
+        if (closed) s.close();   // close() ran while following a redirect
+        new PrintWriter(new OutputStreamWriter(s.getOutputStream()), true).println("GAME:" + gameId);
+        return new BufferedReader(new InputStreamReader(s.getInputStream()));
+    }
+
+    public void close() {
+        closed = true;
+        Socket s = socket;
+        if (s != null) {
+            try { s.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.connectfour;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Preallocated multi-producer / single-consumer ring buffer of game commands.
+ *
+ * HOW IT WORKS:
+ * - Producers claim a sequence number with one getAndIncrement on tail, write the
+ *   command fields into the preallocated slot arrays, then publish the slot by
+ *   storing its sequence into published[] (a volatile write).
+ * - The single consumer walks sequences in order, waits until each slot is published,
+ *   hands the fields to a Handler and then advances head so producers can reuse the slot.
+ * - No per-command allocation: a command is just (type, game, player, col, timestamp).
+ * - When the ring is full, producers spin/yield until the consumer catches up (backpressure).
+ */
+public class MpscRingBuffer {
+    public interface Handler {
+        void onCommand(int type, long gameId, int player, int col, long enqueuedNanos);
+    }
+
+    private final int mask;
+    private final int[] types;
+    private final long[] games;
+    private final int[] players;
+    private final int[] cols;
+    private final long[] stamps;
+    private final AtomicLongArray published;  // sequence stored in a slot once it is readable
+
+    private final AtomicLong tail = new AtomicLong();   // next sequence to claim (producers)
+    private final AtomicLong head = new AtomicLong();   // next sequence to consume (consumer only)
+
+    public MpscRingBuffer(int capacityPowerOfTwo) {
+        if (Integer.bitCount(capacityPowerOfTwo) != 1)
+            throw new IllegalArgumentException("capacity must be a power of two");
+        this.mask = capacityPowerOfTwo - 1;
+        this.types = new int[capacityPowerOfTwo];
+        this.games = new long[capacityPowerOfTwo];
+        this.players = new int[capacityPowerOfTwo];
+        this.cols = new int[capacityPowerOfTwo];
+        this.stamps = new long[capacityPowerOfTwo];
+        this.published = new AtomicLongArray(capacityPowerOfTwo);
+        for (int i = 0; i < capacityPowerOfTwo; i++) published.set(i, -1);
+    }
+
+    //Blocks (spin, then yield) while the ring is full.
+    public void publish(int type, long gameId, int player, int col) {
+        long seq = tail.getAndIncrement();
+        int spins = 0;
+        while (seq - head.get() > mask) {
+            if (++spins < 100) Thread.onSpinWait();
+            else Thread.yield();
+        }
+        int i = (int) seq & mask;
+        types[i] = type;
+        games[i] = gameId;
+        players[i] = player;
+        cols[i] = col;
+        stamps[i] = System.nanoTime();
+        published.set(i, seq);
+    }
+
+    //Consumer side: handles up to max published commands in order, returns how many.
+    public int drain(Handler handler, int max) {
+        long h = head.get();
+        int n = 0;
+        while (n < max) {
+            int i = (int) h & mask;
+            if (published.get(i) != h) break;
+            handler.onCommand(types[i], games[i], players[i], cols[i], stamps[i]);
+            h++;
+            n++;
+            head.lazySet(h); // free the slot; producers re-check head when the ring is full
+        }
+        return n;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
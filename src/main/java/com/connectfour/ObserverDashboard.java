@@ -0,0 +1,262 @@
+package com.connectfour;
+
+import java.awt.*;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.swing.*;
+
+/**
+ * Read-only dashboard that watches many live games at once, one small ConnectClient.BoardPanel
+ * per game. Every connection is a ConnectServer spectator (connect after both seats are taken).
+ *
+ * HOW IT WORKS:
+ * - ONE reader thread multiplexes every connection with a Selector and parses lines straight
+ *   out of the read buffer: BOARD payloads go digit by digit into the game's pending cell
+ *   array. No String per line, no split, no parseInt, so hundreds of games make no garbage.
+ * - COALESCING: the first update after a game was drawn schedules one EDT task for that
+ *   game; updates arriving before the task runs only overwrite the pending cells. A burst
+ *   of 50 moves costs one EDT task, not 50.
+ * - DIRTY CELLS: the EDT task diffs pending against the shown model and repaints only the
+ *   cells that changed; BoardPanel paints only what is inside the clip.
+ * - The status bar shows games, updates/sec (BOARD lines read), frames/sec (EDT render
+ *   passes), cells repainted/sec and the share of updates that coalescing saved.
+ *
+ * Usage: java com.connectfour.ObserverDashboard host:port[,host:port...] [copies]
+ *        (or java com.connectfour.ConnectClient --observe ...). copies connects that many spectators to
+ *        each address, to load the dashboard with a single server.
+ */
+public class ObserverDashboard {
+    private static final int CELL_SIZE = 14;
+    private static final int MAX_LINE = 1024;   // longer lines are skipped, not grown into
+
+    private final List<Game> games = new ArrayList<>();
+    private final Selector selector;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+    private JLabel statsLabel;
+
+    // written by the reader thread only
+    private volatile long updates;
+    // EDT only
+    private long frames, cellsRepainted;
+
+    /** One watched game: connection state on the reader side, model and panel on the EDT side. */
+    private final class Game implements Runnable {
+        final String name;
+        final SocketChannel channel;
+        final ConnectClient.BoardModel model = new ConnectClient.BoardModel();
+        final ConnectClient.BoardPanel panel = new ConnectClient.BoardPanel(model, CELL_SIZE);
+        final JLabel label;
+
+        // reader thread only
+        final byte[] line = new byte[MAX_LINE];
+        int lineLength;
+        boolean overlong;
+
+        // guarded by this: the latest board the reader saw, and whether an EDT task is queued
+        final byte[] pending = new byte[Board.ROWS * Board.COLS];
+        boolean scheduled;
+
+        Game(String name, SocketChannel channel) {
+            this.name = name;
+            this.channel = channel;
+            this.label = new JLabel(name);
+            label.setFont(label.getFont().deriveFont(10f));
+        }
+
+        //Reader thread: one complete BOARD payload in line[from..lineLength).
+        void boardUpdate(int from) {
+            boolean schedule;
+            synchronized (this) {
+                int r = 0, c = 0, val = 0;
+                Arrays.fill(pending, (byte) 0);
+                for (int i = from; i <= lineLength; i++) {
+                    byte b = i < lineLength ? line[i] : (byte) ';';
+                    if (b >= '0' && b <= '9') {
+                        val = val * 10 + (b - '0');
+                    } else if (b == ',' || b == ';') {
+                        if (r < Board.ROWS && c < Board.COLS) pending[r * Board.COLS + c] = (byte) val;
+                        val = 0;
+                        if (b == ',') c++; else { r++; c = 0; }
+                    }
+                }
+                schedule = !scheduled;
+                scheduled = true;
+            }
+            updates++;
+            if (schedule) SwingUtilities.invokeLater(this);
+        }
+
+        //EDT: draw whatever arrived since the last pass.
+        @Override
+        public void run() {
+            long changed;
+            synchronized (this) {
+                changed = model.copyFrom(pending);
+                scheduled = false;
+            }
+            frames++;
+            cellsRepainted += Long.bitCount(changed);
+            panel.repaintCells(changed);
+        }
+
+        void status(String text) {
+            SwingUtilities.invokeLater(() -> label.setText(name + "  " + text));
+        }
+    }
+
+    public ObserverDashboard(List<InetSocketAddress> addresses, int copies) throws IOException {
+        selector = Selector.open();
+        for (InetSocketAddress address : addresses) {
+            for (int i = 0; i < copies; i++) {
+                SocketChannel ch = SocketChannel.open(address);
+                ch.configureBlocking(false);
+                Game game = new Game(address.getHostString() + ":" + address.getPort()
+                        + (copies > 1 ? " #" + (i + 1) : ""), ch);
+                ch.register(selector, SelectionKey.OP_READ, game);
+                games.add(game);
+            }
+        }
+    }
+
+    public void start() {
+        SwingUtilities.invokeLater(this::createAndShowGUI);
+        Thread reader = new Thread(this::readerLoop, "DashboardReader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void createAndShowGUI() {
+        JFrame frame = new JFrame("Connect Four - Observer (" + games.size() + " games)");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setLayout(new BorderLayout());
+
+        statsLabel = new JLabel("Connecting...");
+        statsLabel.setBorder(BorderFactory.createEmptyBorder(6, 6, 6, 6));
+        frame.add(statsLabel, BorderLayout.NORTH);
+
+        int perRow = (int) Math.ceil(Math.sqrt(games.size()));
+        JPanel grid = new JPanel(new GridLayout(0, Math.max(1, perRow), 6, 6));
+        grid.setBorder(BorderFactory.createEmptyBorder(6, 6, 6, 6));
+        for (Game g : games) {
+            JPanel cell = new JPanel(new BorderLayout());
+            cell.add(g.label, BorderLayout.NORTH);
+            cell.add(g.panel, BorderLayout.CENTER);
+            grid.add(cell);
+        }
+        frame.add(new JScrollPane(grid), BorderLayout.CENTER);
+
+        // once a second: rates since the last tick
+        long[] last = new long[4];
+        last[0] = System.nanoTime();
+        new Timer(1000, e -> {
+            long now = System.nanoTime();
+            double secs = (now - last[0]) / 1e9;
+            long u = updates, f = frames, c = cellsRepainted;
+            long du = u - last[1], df = f - last[2];
+            statsLabel.setText(String.format(
+                    "Games: %d   updates/s: %,.0f   frames/s: %,.0f   cells repainted/s: %,.0f   coalesced: %.0f%%",
+                    games.size(), du / secs, df / secs, (c - last[3]) / secs,
+                    du == 0 ? 0.0 : 100.0 * (du - Math.min(du, df)) / du));
+            last[0] = now;
+            last[1] = u;
+            last[2] = f;
+            last[3] = c;
+        }).start();
+
+        frame.setSize(1024, 768);
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+    }
+
+    private void readerLoop() {
+        Consumer<SelectionKey> onReadable = this::onReadable;   // one instance, not one per select
+        try {
+            while (selector.isOpen()) {
+                selector.select(onReadable);
+            }
+        } catch (IOException e) {
+            System.err.println("Dashboard reader stopped: " + e.getMessage());
+        }
+    }
+
+    private void onReadable(SelectionKey key) {
+        Game game = (Game) key.attachment();
+        readBuffer.clear();
+        int n;
+        try {
+            n = game.channel.read(readBuffer);
+        } catch (IOException e) {
+            n = -1;
+        }
+        if (n < 0) {
+            key.cancel();
+            try { game.channel.close(); } catch (IOException ignored) {}
+            game.status("disconnected");
+            return;
+        }
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            byte b = readBuffer.get();
+            if (b == '\n') {
+                if (!game.overlong) onLine(game);
+                game.lineLength = 0;
+                game.overlong = false;
+            } else if (b != '\r') {
+                if (game.lineLength < MAX_LINE) game.line[game.lineLength++] = b;
+                else game.overlong = true;
+            }
+        }
+    }
+
+    //Reader thread. Only BOARD is on the hot path; the rest are rare and may allocate.
+    private void onLine(Game game) {
+        byte[] l = game.line;
+        int len = game.lineLength;
+        if (startsWith(l, len, "BOARD:")) {
+            game.boardUpdate(6);
+        } else if (startsWith(l, len, "WIN:") && len > 4) {
+            game.status("player " + (char) l[4] + " won");
+        } else if (startsWith(l, len, "DRAW")) {
+            game.status("draw");
+        } else if (startsWith(l, len, "ASSIGN:") && len > 7) {
+            // the server was still filling seats and gave us one; we never move
+            game.status("took seat " + (char) l[7] + ", game not started");
+        } else if (startsWith(l, len, "INFO:New game")) {
+            game.status("playing");
+        } else if (startsWith(l, len, Admission.BUSY)) {
+            game.status("refused: " + new String(l, Admission.BUSY.length(), len - Admission.BUSY.length(),
+                    StandardCharsets.UTF_8));
+        }
+    }
+
+    private static boolean startsWith(byte[] line, int len, String prefix) {
+        if (len < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (line[i] != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java com.connectfour.ObserverDashboard host:port[,host:port...] [copies]");
+            return;
+        }
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String hp : args[0].split(",")) {
+            int colon = hp.lastIndexOf(':');
+            addresses.add(new InetSocketAddress(hp.substring(0, colon), Integer.parseInt(hp.substring(colon + 1))));
+        }
+        int copies = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        new ObserverDashboard(addresses, copies).start();
+    }
+}
@@ -0,0 +1,182 @@
+package com.connectfour;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Per-connection outbound message queue so a slow client cannot stall the game.
+ *
+ * HOW IT WORKS:
+ * - offer() only appends to a bounded in-memory queue and never touches the socket,
+ *   so callers holding game locks return immediately.
+ * - Lines are queued as encoded frames (bytes incl. the newline). A frame encoded once
+ *   can be offered to many queues (see SpectatorHub) without re-encoding or copying.
+ * - The first offer on an idle queue schedules one drain task on the writer executor.
+ *   The drain takes EVERYTHING pending, writes the frames into the (buffered) stream and
+ *   flushes once (coalescing), repeating until the queue is empty.
+ * - At most one drain per connection runs at a time, so line order is preserved.
+ * - A writer executor that rejects the drain (bounded and saturated, or shut down)
+ *   disconnects the client like an overflow would: writing inline could block the caller.
+ *
+ * SLOW CONSUMER POLICY (when the queue is full):
+ * - DROP:       discard the new line.
+ * - COLLAPSE:   discard INFO lines and every BOARD line but the newest (the latest board
+ *               supersedes older ones); if nothing could be discarded, disconnect.
+ * - DISCONNECT: close the connection.
+ */
+public class OutboundQueue {
+    public enum SlowConsumerPolicy { DROP, COLLAPSE, DISCONNECT }
+
+    private static final byte[] BOARD = "BOARD:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INFO = "INFO:".getBytes(StandardCharsets.UTF_8);
+
+    private final OutputStream out;
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+    private final Executor writers;
+    private final Runnable onDisconnect;
+
+    private final ArrayDeque<byte[]> pending = new ArrayDeque<>();  // guarded by this
+    private boolean scheduled;                                      // guarded by this
+    private boolean closed;                                         // guarded by this
+    private final List<byte[]> batch = new ArrayList<>();          // only used by the drain
+
+    private volatile long dropped;
+    private volatile long flushes;
+    private volatile int maxDepth;
+
+    public OutboundQueue(OutputStream out, int capacity, SlowConsumerPolicy policy,
+                         Executor writers, Runnable onDisconnect) {
+        this.out = out;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.writers = writers;
+        this.onDisconnect = onDisconnect;
+    }
+
+    //Encodes a protocol line as a frame that can be shared by any number of queues.
+    public static byte[] encode(String line) {
+        return (line + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    //Never blocks. Returns false if the line was dropped or the connection is closed.
+    public boolean offer(String line) {
+        return offer(encode(line));
+    }
+
+    //Queues an already encoded frame. The array is shared, never modified or copied here.
+    public boolean offer(byte[] frame) {
+        boolean schedule;
+        boolean disconnect = false;
+        synchronized (this) {
+            if (closed) return false;
+            if (pending.size() >= capacity && !makeRoom(frame)) {
+                if (policy == SlowConsumerPolicy.DROP) {
+                    dropped++;
+                    return false;
+                }
+                closed = true;
+                dropped += pending.size() + 1;
+                pending.clear();
+                disconnect = true;
+            } else {
+                pending.add(frame);
+                if (pending.size() > maxDepth) maxDepth = pending.size();
+            }
+            schedule = !disconnect && !scheduled;
+            if (schedule) scheduled = true;
+        }
+        if (disconnect) {
+            onDisconnect.run();
+            return false;
+        }
+        if (schedule) {
+            try {
+                writers.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    closed = true;
+                    scheduled = false;
+                    dropped += pending.size();
+                    pending.clear();
+                }
+                onDisconnect.run();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //COLLAPSE only: frees space by removing superseded BOARD lines and INFO lines.
+    private boolean makeRoom(byte[] incoming) {
+        if (policy != SlowConsumerPolicy.COLLAPSE) return false;
+        boolean keepLastBoard = !startsWith(incoming, BOARD);
+        byte[] lastBoard = null;
+        if (keepLastBoard) {
+            for (Iterator<byte[]> it = pending.descendingIterator(); it.hasNext(); ) {
+                byte[] f = it.next();
+                if (startsWith(f, BOARD)) { lastBoard = f; break; }
+            }
+        }
+        int before = pending.size();
+        for (Iterator<byte[]> it = pending.iterator(); it.hasNext(); ) {
+            byte[] f = it.next();
+            if (startsWith(f, INFO) || (startsWith(f, BOARD) && f != lastBoard)) it.remove();
+        }
+        dropped += before - pending.size();
+        return pending.size() < capacity;
+    }
+
+    private static boolean startsWith(byte[] frame, byte[] prefix) {
+        if (frame.length < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) if (frame[i] != prefix[i]) return false;
+        return true;
+    }
+
+    private void drain() {
+        while (true) {
+            synchronized (this) {
+                if (pending.isEmpty() || closed) {
+                    scheduled = false;
+                    return;
+                }
+                batch.addAll(pending);
+                pending.clear();
+            }
+            try {
+                for (byte[] frame : batch) out.write(frame);
+                out.flush();
+                flushes++;
+            } catch (IOException e) {
+                synchronized (this) {
+                    closed = true;
+                    scheduled = false;
+                    pending.clear();
+                }
+                onDisconnect.run();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            pending.clear();
+        }
+    }
+
+    public synchronized int depth() { return pending.size(); }
+    public long dropped() { return dropped; }
+    public long flushes() { return flushes; }
+    public int maxDepth() { return maxDepth; }
+}
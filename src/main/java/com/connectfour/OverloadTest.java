@@ -0,0 +1,155 @@
+package com.connectfour;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test: games in progress while a connection storm hits the node, with and without
+ * admission control.
+ *
+ * A ClusterNode is forked per mode:
+ * - bounded:   the defaults (--max-connections 1024 --max-games 256, shed)
+ * - unbounded: --max-connections 0 (a thread per connection, no game limit)
+ * BASELINE_GAMES games are played flat out against it, each move timed from MOVE sent to
+ * its BOARD coming back. Then, level by level, that many extra connections are opened,
+ * each asking for a new game and then sitting idle in seat 1, as a flood of players that
+ * never get an opponent would. Per level the baseline's moves/sec and p99 are measured
+ * while the storm is held, along with how many storm connections were refused (BUSY:,
+ * connect failure, or not accepted within STORM_OPEN_MILLIS) and the node's thread count
+ * (Linux only).
+ *
+ * Expected: bounded keeps throughput and p99 flat past saturation and its thread count
+ * capped; unbounded grows threads with the storm and the baseline pays for it.
+ *
+ * Usage: java com.connectfour.OverloadTest [stormLevels e.g. 0,250,1000,3000] [seconds]
+ */
+public class OverloadTest {
+    private static final int BASELINE_GAMES = 8;
+    private static final int CONNECT_TIMEOUT_MS = 3000;
+    //A node that cannot keep up stops accepting; storm connections not opened by then count as refused.
+    private static final long STORM_OPEN_MILLIS = 15_000;
+
+    public static void main(String[] args) throws Exception {
+        String[] levels = (args.length > 0 ? args[0] : "0,250,1000,3000").split(",");
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        System.out.println("=== Baseline Games Under A Connection Storm ===");
+        System.out.printf("Baseline: %d games flat out   Measure: %ds per level   Cores: %d%n",
+                BASELINE_GAMES, seconds, Runtime.getRuntime().availableProcessors());
+        run("bounded", levels, seconds);
+        run("unbounded", levels, seconds, "--max-connections", "0");
+    }
+
+    private static void run(String mode, String[] levels, int seconds, String... nodeArgs) throws Exception {
+        int port = LoadClient.freePort();
+        List<String> cmd = new ArrayList<>(List.of(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xms256m", "-Xmx256m", "-cp", System.getProperty("java.class.path"), ClusterNode.class.getName(),
+                String.valueOf(port)));
+        cmd.addAll(List.of(nodeArgs));
+        Process node = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        BufferedReader nodeOut = new BufferedReader(new InputStreamReader(node.getInputStream()));
+        String line;
+        while ((line = nodeOut.readLine()) != null && !line.startsWith("Cluster node listening")) { }
+        Thread drain = new Thread(() -> {
+            try { while (nodeOut.readLine() != null) { } } catch (IOException ignored) {}
+        }, "NodeOutput");
+        drain.setDaemon(true);
+        drain.start();
+
+        System.out.printf("%n%s node%n", mode);
+        System.out.printf("%-7s %12s %9s %9s   %s%n", "Storm", "moves/sec", "refused", "threads", "move latency");
+        LongAdder moves = new LongAdder();
+        List<LoadClient> players = new ArrayList<>();
+        long nextGame = 1;
+        try {
+            for (int g = 0; g < BASELINE_GAMES; g++, nextGame++) {
+                for (int seat = 0; seat < 2; seat++) {
+                    LoadClient p = new LoadClient(port, nextGame, moves);
+                    players.add(p);
+                    p.start();
+                }
+            }
+            Thread.sleep(2000);   // warmup
+
+            for (String level : levels) {
+                int storm = Integer.parseInt(level.trim());
+                List<Socket> held = new ArrayList<>(storm);
+                try {
+                    int refused = 0;
+                    long openDeadline = System.currentTimeMillis() + STORM_OPEN_MILLIS;
+                    for (int i = 0; i < storm; i++, nextGame++) {
+                        Socket s = System.currentTimeMillis() < openDeadline ? openStorm(port, nextGame) : null;
+                        if (s == null) refused++;
+                        else held.add(s);
+                    }
+                    Thread.sleep(500);   // let the node answer
+                    for (Socket s : held) if (busy(s)) refused++;
+
+                    for (LoadClient p : players) p.startWindow();
+                    long before = moves.sum();
+                    long start = System.nanoTime();
+                    Thread.sleep(seconds * 1000L);
+                    long done = moves.sum() - before;
+                    double elapsed = (System.nanoTime() - start) / 1e9;
+                    String threads = threads(node.pid());
+                    LatencyHistogram all = new LatencyHistogram();
+                    for (LoadClient p : players) all.merge(p.endWindow());
+                    System.out.printf("%-7d %,12.0f %9d %9s   %s%n",
+                            storm, done / elapsed, refused, threads, all.summary());
+                } finally {
+                    for (Socket s : held) {
+                        try { s.close(); } catch (IOException ignored) {}
+                    }
+                }
+                Thread.sleep(500);   // let the node reclaim the storm's games
+            }
+        } finally {
+            for (LoadClient p : players) p.close();
+            node.destroy();
+            node.waitFor();
+        }
+    }
+
+    //One storm connection: asks for a fresh game and then stays silent. null if not connected.
+    private static Socket openStorm(int port, long gameId) {
+        Socket s = new Socket();
+        try {
+            s.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT_MS);
+            s.getOutputStream().write(("GAME:" + gameId + "\n").getBytes(StandardCharsets.UTF_8));
+            return s;
+        } catch (IOException e) {
+            try { s.close(); } catch (IOException ignored) {}
+            return null;
+        }
+    }
+
+    //True if the node shed this connection: it answered BUSY: (or already closed it).
+    private static boolean busy(Socket s) {
+        try {
+            InputStream in = s.getInputStream();
+            if (in.available() == 0) return false;
+            byte[] prefix = new byte[Admission.BUSY.length()];
+            int n = in.read(prefix);
+            return n < 0 || new String(prefix, 0, n, StandardCharsets.UTF_8).equals(Admission.BUSY);
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    //Thread count of a process from /proc, or "n/a" elsewhere.
+    private static String threads(long pid) {
+        try {
+            for (String l : Files.readAllLines(Paths.get("/proc/" + pid + "/status"))) {
+                if (l.startsWith("Threads:")) return l.substring(8).trim();
+            }
+        } catch (IOException ignored) {
+        }
+        return "n/a";
+    }
+}
@@ -0,0 +1,125 @@
+package com.connectfour;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test: what hot-standby replication costs a ClusterNode, on loopback.
+ *
+ * For each mode (off, async, sync) a ClusterNode is forked, replicating to a forked
+ * ReplicationStandby unless off. G games are played flat out by 2*G client threads
+ * connected straight to the node; every move is timed from MOVE sent to its BOARD coming
+ * back, so sync mode pays the standby round trip inside that latency.
+ * Reported: moves/sec, move latency, and (from the standby's report when the primary goes
+ * away) how many records each shipped frame carried on average.
+ *
+ * Usage: java com.connectfour.ReplicationBenchmark [games] [seconds]
+ */
+public class ReplicationBenchmark {
+    private static final int WARMUP_SECONDS = 2;
+    private static final String[] MODES = {"off", "async", "sync"};
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        System.out.println("=== Replication Cost (loopback) ===");
+        System.out.printf("Games: %d (%d client threads)   Measure: %ds after %ds warmup%n%n",
+                games, games * 2, seconds, WARMUP_SECONDS);
+        System.out.printf("%-6s %12s %11s   %s%n", "Mode", "moves/sec", "recs/frame", "move latency");
+        long firstGame = 1;
+        for (String mode : MODES) {
+            run(mode, games, seconds, firstGame);
+            firstGame += games;
+        }
+    }
+
+    private static void run(String mode, int games, int seconds, long firstGame) throws Exception {
+        Process standby = null;
+        BufferedReader standbyOut = null;
+        Process node = null;
+        List<LoadClient> players = new ArrayList<>();
+        try {
+            int nodePort = LoadClient.freePort();
+            List<String> nodeArgs = new ArrayList<>(List.of(String.valueOf(nodePort)));
+            if (!mode.equals("off")) {
+                int standbyPort = LoadClient.freePort();
+                standby = fork(ReplicationStandby.class, List.of(String.valueOf(standbyPort)), false);
+                standbyOut = new BufferedReader(new InputStreamReader(standby.getInputStream(), StandardCharsets.UTF_8));
+                // not probed with a connection: the standby would take it for its primary
+                String line;
+                while ((line = standbyOut.readLine()) != null && !line.startsWith("Standby listening")) { }
+                nodeArgs.addAll(List.of("--replicate", "127.0.0.1:" + standbyPort, mode));
+            }
+            node = fork(ClusterNode.class, nodeArgs, true);
+            awaitListening(nodePort);
+
+            LongAdder moves = new LongAdder();
+            for (long g = firstGame; g < firstGame + games; g++) {
+                for (int seat = 0; seat < 2; seat++) {
+                    LoadClient p = new LoadClient(nodePort, g, moves);
+                    players.add(p);
+                    p.start();
+                }
+            }
+            Thread.sleep(WARMUP_SECONDS * 1000L);
+            for (LoadClient p : players) p.startWindow();
+            long before = moves.sum();
+            long start = System.nanoTime();
+            Thread.sleep(seconds * 1000L);
+            double rate = (moves.sum() - before) / ((System.nanoTime() - start) / 1e9);
+            LatencyHistogram all = new LatencyHistogram();
+            for (LoadClient p : players) all.merge(p.endWindow());
+
+            for (LoadClient p : players) p.close();
+            node.destroy();
+            node.waitFor();
+            String perFrame = "-";
+            if (standby != null) {
+                // "Primary lost after seq N (F frames, G games)."
+                StringBuilder report = new StringBuilder();
+                String line;
+                while ((line = standbyOut.readLine()) != null) report.append(line).append('\n');
+                int at = report.indexOf("after seq ");
+                if (at >= 0) {
+                    String[] f = report.substring(at + 10).split("[ (]+");
+                    perFrame = String.format("%.1f", Long.parseLong(f[0]) / (double) Math.max(1, Long.parseLong(f[1])));
+                }
+            }
+            System.out.printf("%-6s %,12.0f %11s   %s%n", mode, rate, perFrame, all.summary());
+        } finally {
+            for (LoadClient p : players) p.close();
+            if (node != null) node.destroy();
+            if (standby != null) standby.destroy();
+        }
+    }
+
+    //Standby output is kept (its report is parsed), the node's is discarded.
+    private static Process fork(Class<?> main, List<String> args, boolean discardOutput) throws IOException {
+        List<String> cmd = new ArrayList<>(List.of(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xms256m", "-Xmx256m", "-cp", System.getProperty("java.class.path"), main.getName()));
+        cmd.addAll(args);
+        ProcessBuilder pb = new ProcessBuilder(cmd).redirectErrorStream(true);
+        if (discardOutput) pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        return pb.start();
+    }
+
+    //Waits until a forked node accepts connections.
+    private static void awaitListening(int port) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            try (Socket s = new Socket()) {
+                s.connect(new InetSocketAddress("127.0.0.1", port));
+                return;   // the node drops the probe: it never names a game
+            } catch (IOException e) {
+                if (System.currentTimeMillis() > deadline) throw e;
+                Thread.sleep(50);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.connectfour;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Primary side of hot-standby replication: ships every accepted move to a
+ * ReplicationStandby over one socket.
+ *
+ * HOW IT WORKS:
+ * - move()/reset() append a 12-byte record (game id, type, player, column) to an in-memory
+ *   batch and get the next sequence number. They never touch the socket.
+ * - A shipper thread swaps the batch out and writes it as ONE frame
+ *   [record count][first seq][records...], so however many games move at once, the standby
+ *   sees one write and sends one ack per frame. Frames are pipelined: the shipper does not
+ *   wait for an ack before sending the next one.
+ * - An ack reader thread reads the standby's "applied up to seq" acks.
+ * - SYNC: move() returns only once its record is acked, so a client is never shown a move
+ *   the standby does not have. Everything appended while a frame is in flight rides in the
+ *   next frame (group commit).
+ *   ASYNC: move() returns at once; a move is lost on failover if its frame was not yet
+ *   applied. Appends block only if MAX_PENDING records are waiting (bounded memory).
+ * - If the standby goes away, replication stops with a warning and waiters are released:
+ *   the primary keeps serving games unreplicated rather than stalling them.
+ */
+public class ReplicationLog {
+    public enum Ack { ASYNC, SYNC }
+
+    static final byte MOVE = 1;
+    static final byte RESET = 2;
+    static final int RECORD_BYTES = 12;
+    private static final int MAX_PENDING = 64 * 1024;
+
+    private final Ack ack;
+    private final Socket socket;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+
+    // guarded by this
+    private ByteArrayOutputStream batch = new ByteArrayOutputStream(4096);
+    private ByteArrayOutputStream spare = new ByteArrayOutputStream(4096);
+    private DataOutputStream batchOut = new DataOutputStream(batch);
+    private DataOutputStream spareOut = new DataOutputStream(spare);
+    private int batchRecords;
+    private long nextSeq = 1;          // seq of the next record appended
+    private long ackedSeq = 0;         // highest seq the standby has applied
+    private boolean broken;
+
+    private volatile long frames, records;
+
+    public ReplicationLog(InetSocketAddress standby, Ack ack) throws IOException {
+        this.ack = ack;
+        this.socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(standby);
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        Thread shipper = new Thread(this::shipLoop, "ReplicationShipper");
+        shipper.setDaemon(true);
+        shipper.start();
+        Thread acks = new Thread(this::ackLoop, "ReplicationAcks");
+        acks.setDaemon(true);
+        acks.start();
+    }
+
+    public Ack ack() {
+        return ack;
+    }
+
+    public void move(long gameId, int player, int col) {
+        append(gameId, MOVE, player, col);
+    }
+
+    public void reset(long gameId) {
+        append(gameId, RESET, 0, 0);
+    }
+
+    public long frames() { return frames; }
+    public long records() { return records; }
+
+    private void append(long gameId, byte type, int player, int col) {
+        long seq;
+        synchronized (this) {
+            if (broken) return;
+            while (ack == Ack.ASYNC && nextSeq - 1 - ackedSeq >= MAX_PENDING && !broken) waitUninterruptibly();
+            try {
+                batchOut.writeLong(gameId);
+                batchOut.writeByte(type);
+                batchOut.writeByte(player);
+                batchOut.writeShort(col);
+            } catch (IOException impossible) {
+                throw new UncheckedIOException(impossible);   // ByteArrayOutputStream does not throw
+            }
+            batchRecords++;
+            seq = nextSeq++;
+            notifyAll();                                  // wake the shipper
+            if (ack == Ack.SYNC) {
+                while (ackedSeq < seq && !broken) waitUninterruptibly();
+            }
+        }
+    }
+
+    private void shipLoop() {
+        try {
+            while (true) {
+                ByteArrayOutputStream frame;
+                int count;
+                long firstSeq;
+                synchronized (this) {
+                    while (batchRecords == 0) waitUninterruptibly();
+                    frame = batch;
+                    count = batchRecords;
+                    firstSeq = nextSeq - count;
+                    DataOutputStream frameOut = batchOut;
+                    spare.reset();
+                    batch = spare;
+                    batchOut = spareOut;
+                    spare = frame;
+                    spareOut = frameOut;
+                    batchRecords = 0;
+                }
+                out.writeInt(count);
+                out.writeLong(firstSeq);
+                frame.writeTo(out);
+                out.flush();
+                frames++;
+                records += count;
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void ackLoop() {
+        try {
+            while (true) {
+                long seq = in.readLong();
+                synchronized (this) {
+                    ackedSeq = seq;
+                    notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private synchronized void fail(IOException e) {
+        if (broken) return;
+        broken = true;
+        notifyAll();
+        System.err.println("Replication stopped, serving unreplicated: " + e.getMessage());
+        try { socket.close(); } catch (IOException ignored) {}
+    }
+
+    //Interrupts are ignored: a SYNC move must not return before its ack or failure.
+    private void waitUninterruptibly() {
+        try {
+            wait();
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    //"host:port" -> address, as taken by the --replicate options.
+    static InetSocketAddress address(String hostPort) {
+        int colon = hostPort.lastIndexOf(':');
+        return new InetSocketAddress(hostPort.substring(0, colon), Integer.parseInt(hostPort.substring(colon + 1)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.connectfour;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Standby side of hot-standby replication: applies the primary's ReplicationLog frames to
+ * live boards and can take over when the primary is gone.
+ *
+ * HOW IT WORKS:
+ * - One primary connects; every frame is applied record by record (drop or clear on a
+ *   BoardUnlocked, this thread is the only writer) and acked with the last applied seq.
+ * - Each game also keeps its moves since the last reset, so a takeover can replay them
+ *   into a fresh ConnectServer (ConnectServer.resume).
+ * - TAKEOVER: when the primary's connection ends and --takeover is given, the standby
+ *   starts a ClusterNode on that port seeded with every replicated game. Players reconnect
+ *   there with GAME:<id> and the game continues from the last replicated move.
+ *
+ * Usage: java com.connectfour.ReplicationStandby [port] [--takeover nodePort]
+ */
+public class ReplicationStandby {
+    //Replicated state of one game.
+    static final class Replica {
+        final GameBoard board = new BoardUnlocked();
+        private int[] moves = new int[Board.ROWS * Board.COLS];
+        private int count;
+
+        void move(int player, int col) {
+            if (board.drop(player, col) < 0) return;   // cannot happen for moves the primary accepted
+            if (count == moves.length) moves = Arrays.copyOf(moves, count * 2);
+            moves[count++] = player << 8 | col;
+        }
+
+        void reset() {
+            board.clear();
+            count = 0;
+        }
+
+        //player << 8 | col, in play order.
+        int[] moves() {
+            return Arrays.copyOf(moves, count);
+        }
+    }
+
+    private final int port;
+    private final Map<Long, Replica> games = new ConcurrentHashMap<>();
+    private volatile long appliedSeq, frames;
+
+    public ReplicationStandby(int port) {
+        this.port = port;
+    }
+
+    public Map<Long, Replica> games() { return games; }
+    public long appliedSeq() { return appliedSeq; }
+    public long frames() { return frames; }
+
+    //Serves one primary until its connection ends.
+    public void awaitPrimary() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port)) {
+            System.out.println("Standby listening on port " + serverSocket.getLocalPort());
+            try (Socket s = serverSocket.accept()) {
+                s.setTcpNoDelay(true);
+                System.out.println("Primary connected from " + s.getRemoteSocketAddress());
+                replicate(new DataInputStream(new BufferedInputStream(s.getInputStream(), 64 * 1024)),
+                        new DataOutputStream(new BufferedOutputStream(s.getOutputStream())));
+            }
+        }
+    }
+
+    private void replicate(DataInputStream in, DataOutputStream out) {
+        try {
+            while (true) {
+                int count = in.readInt();
+                long seq = in.readLong();
+                for (int i = 0; i < count; i++, seq++) {
+                    long gameId = in.readLong();
+                    byte type = in.readByte();
+                    int player = in.readByte();
+                    int col = in.readShort();
+                    Replica r = games.computeIfAbsent(gameId, k -> new Replica());
+                    if (type == ReplicationLog.MOVE) r.move(player, col);
+                    else if (type == ReplicationLog.RESET) r.reset();
+                }
+                appliedSeq = seq - 1;
+                frames++;
+                out.writeLong(appliedSeq);
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.out.println("Primary lost after seq " + appliedSeq + " (" + frames + " frames, "
+                    + games.size() + " games).");
+        }
+    }
+
+    //Serves every replicated game from a ClusterNode on nodePort.
+    public void takeOver(int nodePort) throws IOException {
+        ClusterNode node = new ClusterNode(nodePort, "sync", ConnectServer.Engine.LOCKED);
+        for (Map.Entry<Long, Replica> e : games.entrySet()) node.seed(e.getKey(), e.getValue().moves());
+        System.out.println("Taking over " + games.size() + " games.");
+        node.start(null);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 6000;
+        int takeover = -1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--takeover") && i + 1 < args.length) {
+                takeover = Integer.parseInt(args[++i]);
+            } else {
+                port = Integer.parseInt(args[i]);
+            }
+        }
+        ReplicationStandby standby = new ReplicationStandby(port);
+        standby.awaitPrimary();
+        if (takeover > 0) standby.takeOver(takeover);
+    }
+}
@@ -0,0 +1,200 @@
+package com.connectfour;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+/**
+ * Macro-benchmark: complete bot-vs-bot games played in parallel, as a game server's load
+ * looks, instead of single board calls.
+ *
+ * HOW IT WORKS:
+ * - Every game runs the full lifecycle on the board under test: clear, then drop /
+ *   checkWinner / isFull per move until a win or a full board.
+ * - The games are split into chunks of CHUNK games; a parallel stream runs the chunks in a
+ *   ForkJoinPool of P threads for P = 1, 2, 4, ... cores. The total is fixed, so this is
+ *   strong scaling: efficiency = rate(P) / (P * rate(1)).
+ * - PRIVATE mode: one board per game (each chunk owns a board and clears it between games).
+ *   A BitBoard mirror chooses the moves and cross-checks the board: a drop refused on a
+ *   playable column, or checkWinner disagreeing with the mirror, counts as a mismatch.
+ *   Chunks are seeded by index, so the P1/P2/draw totals are identical for every core count.
+ * - SHARED mode: every game is played on one of --boards shared boards, so moves from
+ *   different threads interleave on the same board and contend on its lock. A thread that
+ *   sees a win or a full board ends the game: under the board's end lock it checks again
+ *   and clears. Only the thread whose clear() ended the game counts it, so a win seen by
+ *   several threads counts once, and games/sec is games actually completed.
+ *   Moves are always random; a private mirror means nothing on a board others write.
+ * - Policies: random (uniform over playable columns) and heuristic (win at once if
+ *   possible, otherwise a center-weighted random column).
+ *
+ * Usage: java com.connectfour.SelfPlayBenchmark [impls e.g. sync,rwlock,flatcombining,unlocked] [games]
+ *                                               [random|heuristic] [private|shared|both] [boards]
+ */
+public class SelfPlayBenchmark {
+    private static final int CHUNK = 1000;
+    private static final int[] CENTER_WEIGHTS = {1, 2, 3, 4, 3, 2, 1};   // sum 16
+    private static final int P1 = 0, P2 = 1, DRAWS = 2, MOVES = 3, MISMATCHES = 4;
+
+    public static void main(String[] args) throws Exception {
+        String[] impls = (args.length > 0 ? args[0] : "sync,rwlock,flatcombining,adaptive,unlocked").split(",");
+        long games = args.length > 1 ? Long.parseLong(args[1]) : 500_000;
+        boolean heuristic = args.length > 2 && args[2].equals("heuristic");
+        String modes = args.length > 3 ? args[3] : "both";
+        int boards = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+
+        List<Integer> cores = new ArrayList<>();
+        int max = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p < max; p *= 2) cores.add(p);
+        cores.add(max);
+
+        System.out.println("=== Self-Play Simulation ===");
+        System.out.printf("Games per run: %,d   Cores: %d%n", games, max);
+        if (!modes.equals("shared")) {
+            System.out.printf("%nPrivate: one board per game, policy %s%n", heuristic ? "heuristic" : "random");
+            table(impls, cores, games, heuristic, 0);
+        }
+        if (!modes.equals("private")) {
+            System.out.printf("%nShared: all games on %d board(s), policy random%n", boards);
+            table(impls, cores, games, false, boards);
+        }
+    }
+
+    private static void table(String[] impls, List<Integer> cores, long games, boolean heuristic, int shared)
+            throws Exception {
+        System.out.printf("%-14s %5s %14s %14s %10s   %s%n", "Impl", "Cores", "games/sec", "moves/sec", "efficiency",
+                shared > 0 ? "wins P1/P2, draws" : "wins P1/P2, draws, mismatches");
+        for (String impl : impls) {
+            if (shared > 0 && impl.equals("unlocked")) continue;   // not thread-safe
+            run(impl, cores.get(cores.size() - 1), Math.min(games, 100_000), heuristic, shared);   // warmup
+            double base = 0;
+            for (int p : cores) {
+                long start = System.nanoTime();
+                long[] r = run(impl, p, games, heuristic, shared);
+                double secs = (System.nanoTime() - start) / 1e9;
+                double rate = (r[P1] + r[P2] + r[DRAWS]) / secs;   // shared: fewer than asked for
+                if (p == 1) base = rate;
+                String outcome = String.format("%,d/%,d, %,d", r[P1], r[P2], r[DRAWS])
+                        + (shared > 0 ? "" : String.format(", %d", r[MISMATCHES]));
+                System.out.printf("%-14s %5d %,14.0f %,14.0f %9.0f%%   %s%n", p == 1 ? impl : "", p, rate,
+                        r[MOVES] / secs, base > 0 ? 100 * rate / (p * base) : 100, outcome);
+            }
+        }
+    }
+
+    //Plays games on a pool of `threads`; returns the summed totals (see P1..MISMATCHES).
+    static long[] run(String impl, int threads, long games, boolean heuristic, int shared) throws Exception {
+        GameBoard[] boards = new GameBoard[shared];
+        Object[] endLocks = new Object[shared];
+        for (int i = 0; i < shared; i++) {
+            boards[i] = GameBoard.create(impl);
+            endLocks[i] = new Object();
+        }
+        long chunks = (games + CHUNK - 1) / CHUNK;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> LongStream.range(0, chunks).parallel()
+                    .mapToObj(c -> {
+                        int n = (int) Math.min(CHUNK, games - c * CHUNK);
+                        SplittableRandom rnd = new SplittableRandom(c);
+                        return shared > 0 ? playShared(boards[(int) (c % shared)], endLocks[(int) (c % shared)], n, rnd)
+                                : playPrivate(GameBoard.create(impl), n, heuristic, rnd);
+                    })
+                    .reduce(new long[5], SelfPlayBenchmark::sum)).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static long[] playPrivate(GameBoard board, int games, boolean heuristic, SplittableRandom rnd) {
+        long[] r = new long[5];
+        for (int g = 0; g < games; g++) {
+            board.clear();
+            BitBoard mirror = new BitBoard();
+            int player = 1;
+            while (true) {
+                int col = heuristic ? heuristicMove(mirror, rnd) : randomMove(mirror, rnd);
+                boolean wins = mirror.isWinningMove(col);
+                if (board.drop(player, col) < 0) {
+                    r[MISMATCHES]++;
+                    break;
+                }
+                mirror.play(col);
+                r[MOVES]++;
+                int winner = board.checkWinner();
+                if ((winner != 0) != wins) r[MISMATCHES]++;
+                if (winner != 0) {
+                    r[winner == 1 ? P1 : P2]++;
+                    break;
+                }
+                if (board.isFull()) {
+                    r[DRAWS]++;
+                    break;
+                }
+                player = 3 - player;
+            }
+        }
+        return r;
+    }
+
+    private static long[] playShared(GameBoard board, Object endLock, int games, SplittableRandom rnd) {
+        long[] r = new long[5];
+        for (int g = 0; g < games; g++) {
+            int player = 1;
+            while (true) {
+                if (board.drop(player, rnd.nextInt(Board.COLS)) < 0) {
+                    // full column: another thread's move may have filled the board
+                    if (board.isFull()) {
+                        end(board, endLock, r);
+                        break;
+                    }
+                    continue;
+                }
+                r[MOVES]++;
+                if (board.checkWinner() != 0 || board.isFull()) {
+                    end(board, endLock, r);
+                    break;
+                }
+                player = 3 - player;
+            }
+        }
+        return r;
+    }
+
+    //Counts the game only if it is still over when this thread gets to clear it; a thread
+    //that saw the same win after another one cleared it finds a fresh board instead.
+    private static void end(GameBoard board, Object endLock, long[] r) {
+        synchronized (endLock) {
+            int winner = board.checkWinner();
+            if (winner == 0 && !board.isFull()) return;
+            board.clear();
+            r[winner == 1 ? P1 : winner == 2 ? P2 : DRAWS]++;
+        }
+    }
+
+    private static int randomMove(BitBoard b, SplittableRandom rnd) {
+        while (true) {
+            int col = rnd.nextInt(Board.COLS);
+            if (b.canPlay(col)) return col;
+        }
+    }
+
+    private static int heuristicMove(BitBoard b, SplittableRandom rnd) {
+        for (int col = 0; col < Board.COLS; col++) {
+            if (b.canPlay(col) && b.isWinningMove(col)) return col;
+        }
+        while (true) {
+            int pick = rnd.nextInt(16);
+            int col = 0;
+            while (pick >= CENTER_WEIGHTS[col]) pick -= CENTER_WEIGHTS[col++];
+            if (b.canPlay(col)) return col;
+        }
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        long[] r = new long[a.length];
+        for (int i = 0; i < a.length; i++) r[i] = a[i] + b[i];
+        return r;
+    }
+}
@@ -0,0 +1,165 @@
+package com.connectfour;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark of the server's per-move path, in process: ConnectServer.handleMove ->
+ * drop -> broadcastBoard (serialize, encode, one frame to every player and the spectator
+ * hub) -> checkWinner / isFull -> turn messages, i.e. everything a MOVE line costs after
+ * it has been read.
+ *
+ * HOW IT WORKS:
+ * - Every player and spectator is a SinkSocket: a Socket whose output is discarded and
+ *   whose input blocks until closed, so ConnectServer.accept seats it like a real client
+ *   but no kernel socket or loopback traffic is involved.
+ * - Outbound queues drain inline on the thread that queued (DirectExecutor): a player's
+ *   frame is written to its sink inside the measured move, as a writer thread would.
+ *   The SpectatorHub fan-out task runs on the same DirectExecutor, so with spectators a
+ *   move also pays for offering its frames to every spectator queue.
+ * - Each benchmark thread owns `games` games and plays them round robin with random legal
+ *   moves (a mirror of the column heights keeps every move legal), rematching when a game
+ *   ends. EVENT_LOOP moves are asynchronous; the thread waits until its move is applied,
+ *   so one op is one applied move there too.
+ *
+ * Params: games per thread (working set), spectators per game, engine (locked: two
+ * monitors per move, eventloop: single-writer loop). The server speaks one text protocol,
+ * encoded once per broadcast; the engine is what changes the per-move path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ServerMoveBenchmark {
+
+    @Param({"1", "64"})
+    public int games;
+
+    @Param({"0", "16"})
+    public int spectators;
+
+    @Param({"locked", "eventloop"})
+    public String engine;
+
+    private ConnectServer[] servers;
+    private int[][] heights;      // per game: discs in each column
+    private final List<SinkSocket> sockets = new ArrayList<>();
+    private ExecutorService handlers;
+    private int next;
+    private long seed = 0x2545F4914F6CDD1DL;
+
+    //Runs a task on the calling thread: outbound queues drain as part of the move.
+    static final class DirectExecutor extends AbstractExecutorService {
+        private volatile boolean shutdown;
+
+        @Override public void execute(Runnable r) { r.run(); }
+        @Override public void shutdown() { shutdown = true; }
+        @Override public List<Runnable> shutdownNow() { shutdown = true; return new ArrayList<>(); }
+        @Override public boolean isShutdown() { return shutdown; }
+        @Override public boolean isTerminated() { return shutdown; }
+        @Override public boolean awaitTermination(long timeout, TimeUnit unit) { return true; }
+    }
+
+    //A client connection without a socket: writes vanish, reads block until close().
+    static final class SinkSocket extends Socket {
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private final InputStream in = new InputStream() {
+            @Override
+            public int read() {
+                try {
+                    closed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return -1;
+            }
+        };
+        private final OutputStream out = OutputStream.nullOutputStream();
+
+        @Override public InputStream getInputStream() { return in; }
+        @Override public OutputStream getOutputStream() { return out; }
+        @Override public void setTcpNoDelay(boolean on) {}
+        @Override public void setSoTimeout(int timeout) {}
+        @Override public void close() { closed.countDown(); }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ConnectServer.Engine e = engine.equals("eventloop") ? ConnectServer.Engine.EVENT_LOOP : ConnectServer.Engine.LOCKED;
+        handlers = Executors.newCachedThreadPool();   // PlayerHandler threads, parked on their sinks
+        ExecutorService writers = new DirectExecutor();
+        servers = new ConnectServer[games];
+        heights = new int[games][Board.COLS];
+        for (int g = 0; g < games; g++) {
+            ConnectServer server = new ConnectServer(0, null, e, "sync").verbose(false).executors(handlers, writers);
+            for (int i = 0; i < 2 + spectators; i++) {
+                SinkSocket s = new SinkSocket();
+                sockets.add(s);
+                server.accept(s);
+            }
+            servers[g] = server;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (ConnectServer server : servers) server.close();
+        for (SinkSocket s : sockets) s.close();
+        handlers.shutdown();
+    }
+
+    @Benchmark
+    public int benchmarkMove() {
+        int g = next;
+        next = g + 1 == games ? 0 : g + 1;
+        ConnectServer server = servers[g];
+        int[] h = heights[g];
+        int player = server.turn();
+        int col = legalColumn(h);
+        server.move(player, col);
+        h[col]++;
+        // EVENT_LOOP: until applied. yield, not spin: the loop thread may need this core
+        while (server.turn() == player && !server.over()) Thread.yield();
+        if (server.over()) {
+            server.reset(1);
+            server.reset(2);
+            while (server.over() || server.turn() != 1) Thread.yield();   // player 1 opens every game
+            Arrays.fill(h, 0);
+        }
+        return col;
+    }
+
+    //Random non-full column (xorshift; ThreadLocalRandom would dominate a move this cheap).
+    private int legalColumn(int[] h) {
+        while (true) {
+            seed ^= seed << 13;
+            seed ^= seed >>> 7;
+            seed ^= seed << 17;
+            int col = (int) ((seed >>> 33) % Board.COLS);
+            if (h[col] < Board.ROWS) return col;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(ServerMoveBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
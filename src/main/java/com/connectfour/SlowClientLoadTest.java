@@ -0,0 +1,139 @@
+package com.connectfour;
+
+import java.io.*;
+import java.net.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test: move latency while ONE connected client reads very slowly.
+ *
+ * A game thread plays moves at a fixed rate and, like ConnectServer.handleMove, broadcasts
+ * BOARD + turn messages to every connection while holding the game lock. Connections are
+ * real loopback sockets: most readers drain as fast as they can, one reads a few hundred
+ * bytes every few milliseconds.
+ *
+ * Modes:
+ * - blocking:   the old PlayerHandler.send (println + flush per message on the caller's thread)
+ * - drop / collapse / disconnect: OutboundQueue with that slow-consumer policy
+ *
+ * Latency is measured from each move's scheduled start, so stalls are not hidden
+ * by the game thread falling behind (no coordinated omission).
+ *
+ * Usage: java com.connectfour.SlowClientLoadTest [movesPerSec] [seconds] [fastClients]
+ */
+public class SlowClientLoadTest {
+    private static final int QUEUE_CAPACITY = 128;
+
+    public static void main(String[] args) throws Exception {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int fast = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        System.out.println("=== Move Latency With One Slow Reader ===");
+        System.out.printf("Target: %d moves/sec for %ds, %d fast readers + 1 slow reader%n%n", rate, seconds, fast);
+        System.out.printf("%-11s %12s %10s %10s   %s%n", "Mode", "moves/sec", "dropped", "flushes", "move latency");
+        run("blocking", null, rate, seconds, fast);
+        for (OutboundQueue.SlowConsumerPolicy p : OutboundQueue.SlowConsumerPolicy.values()) {
+            run(p.name().toLowerCase(), p, rate, seconds, fast);
+        }
+    }
+
+    private interface Sender {
+        void send(String line);
+    }
+
+    private static void run(String mode, OutboundQueue.SlowConsumerPolicy policy,
+                            int rate, int seconds, int fast) throws Exception {
+        ExecutorService writers = Executors.newCachedThreadPool();
+        List<Socket> clientSockets = new ArrayList<>();
+        List<Socket> serverSockets = new ArrayList<>();
+        List<OutboundQueue> queues = new ArrayList<>();
+        List<Sender> senders = new ArrayList<>();
+
+        try (ServerSocket ss = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            for (int i = 0; i <= fast; i++) {
+                boolean slow = i == fast;
+                Socket client = new Socket();
+                if (slow) client.setReceiveBufferSize(4096);
+                client.connect(ss.getLocalSocketAddress());
+                Socket server = ss.accept();
+                server.setSendBufferSize(4096);
+                clientSockets.add(client);
+                serverSockets.add(server);
+                startReader(client, slow);
+
+                if (policy == null) {
+                    PrintWriter pw = new PrintWriter(new OutputStreamWriter(server.getOutputStream()), true);
+                    senders.add(line -> { pw.println(line); pw.flush(); });
+                } else {
+                    OutboundQueue q = new OutboundQueue(new BufferedOutputStream(server.getOutputStream()),
+                            QUEUE_CAPACITY, policy, writers, () -> closeQuietly(server));
+                    queues.add(q);
+                    senders.add(q::offer);
+                }
+            }
+
+            Object gameLock = new Object();
+            Board board = new Board();
+            LatencyHistogram hist = new LatencyHistogram();
+            long interval = 1_000_000_000L / rate;
+            long start = System.nanoTime();
+            long end = start + seconds * 1_000_000_000L;
+            long moves = 0;
+            int current = 1;
+            for (long scheduled = start; scheduled < end; scheduled += interval) {
+                long now;
+                while ((now = System.nanoTime()) < scheduled) LockSupport.parkNanos(scheduled - now);
+                synchronized (gameLock) {  // like the ConnectServer monitor in handleMove
+                    if (board.drop(current, (int) (moves % Board.COLS)) < 0 || board.checkWinner() != 0) {
+                        board.clear();
+                        for (Sender s : senders) s.send("INFO:New game started! Player 1 begins.");
+                    }
+                    String msg = "BOARD:" + board.serialize();
+                    for (Sender s : senders) s.send(msg);
+                    current = 3 - current;
+                    for (int i = 0; i < senders.size(); i++) {
+                        senders.get(i).send((i % 2) + 1 == current ? "YOUR_TURN" : "OPPONENT_TURN");
+                    }
+                }
+                hist.record(System.nanoTime() - scheduled);
+                moves++;
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            long dropped = 0, flushes = 0;
+            for (OutboundQueue q : queues) {
+                dropped += q.dropped();
+                flushes += q.flushes();
+            }
+            System.out.printf("%-11s %,12.0f %,10d %,10d   %s%n", mode, moves / elapsed, dropped, flushes, hist.summary());
+        } finally {
+            for (OutboundQueue q : queues) q.close();
+            for (Socket s : serverSockets) closeQuietly(s);
+            for (Socket s : clientSockets) closeQuietly(s);
+            writers.shutdownNow();
+        }
+    }
+
+    private static void startReader(Socket socket, boolean slow) {
+        Thread t = new Thread(() -> {
+            byte[] buf = new byte[slow ? 256 : 64 * 1024];
+            try (InputStream in = socket.getInputStream()) {
+                while (in.read(buf) >= 0) {
+                    if (slow) Thread.sleep(5);
+                }
+            } catch (IOException | InterruptedException ignored) {
+            }
+        }, slow ? "SlowReader" : "FastReader");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private static void closeQuietly(Socket s) {
+        try { s.close(); } catch (IOException ignored) {}
+    }
+}
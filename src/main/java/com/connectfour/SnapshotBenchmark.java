@@ -0,0 +1,182 @@
+package com.connectfour;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark: reading a whole position as rows * cols getCell calls versus one snapshot.
+ *
+ * Alone on the board (one mid-game position, nobody writing):
+ * - perCell:           42 getCell, one lock round-trip each
+ * - snapshot:          one acquisition, the position packed into a reused long[]
+ * - snapshotUnchanged: snapshot(into, version) of a board still at that version, the
+ *                      poll of a spectator or renderer between moves (no lock, no copy)
+ *
+ * Under writes (@Group, 3 readers and 1 writer playing legal moves, clearing when full):
+ * - perCellUnderWrites:  the readers use getCell; a position that no real game can reach
+ *                        (a disc above an empty cell, or disc counts off by more than one)
+ *                        counts as torn, reported as the "torn" counter
+ * - snapshotUnderWrites: the readers poll snapshot(into, lastVersion) and decode the copy
+ *                        with GameBoard.cellOf, through the same check and counter
+ *
+ * "arena" is a BoardArena slot view. "unlocked" is only meaningful alone on the board.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class SnapshotBenchmark {
+    private static final int[] OPENING = {3, 3, 2, 4, 4, 2, 5, 1, 1, 6, 0, 0, 6, 5, 3, 3, 2, 4, 5, 1};
+
+    @Param({"sync", "rwlock", "flatcombining", "adaptive", "optimistic", "arena", "unlocked"})
+    public String impl;
+
+    GameBoard board;
+    int rows, cols;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        board = impl.equals("arena") ? arenaView() : GameBoard.create(impl);
+        rows = board.rows();
+        cols = board.cols();
+        for (int i = 0; i < OPENING.length; i++) board.drop(1 + (i & 1), OPENING[i]);
+    }
+
+    private static GameBoard arenaView() {
+        BoardArena arena = new BoardArena(1);
+        return arena.view(arena.allocate());
+    }
+
+    //A reader's reusable buffer and the version it last copied.
+    @State(Scope.Thread)
+    public static class Reader {
+        long[] cells;
+        long version;
+
+        @Setup(Level.Trial)
+        public void setup(SnapshotBenchmark b) {
+            cells = new long[GameBoard.snapshotLength(b.rows, b.cols)];
+            version = b.board.snapshot(cells);
+        }
+    }
+
+    //Positions a reader saw that no game can reach.
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Torn {
+        public long torn;
+    }
+
+    //The writer's view of the column heights, so every drop is legal.
+    @State(Scope.Thread)
+    public static class Writer {
+        int[] heights;
+        int discs, next;
+
+        @Setup(Level.Iteration)
+        public void setup(SnapshotBenchmark b) {
+            b.board.clear();
+            heights = new int[b.cols];
+            discs = 0;
+        }
+    }
+
+    // Alone on the board ---------------------------------------------------
+
+    @Benchmark
+    public int perCell() {
+        int sum = 0;
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++) sum += board.getCell(r, c);
+        return sum;
+    }
+
+    @Benchmark
+    public long snapshot(Reader reader) {
+        return board.snapshot(reader.cells);
+    }
+
+    @Benchmark
+    public long snapshotUnchanged(Reader reader) {
+        return board.snapshot(reader.cells, reader.version);
+    }
+
+    // Under writes ---------------------------------------------------------
+
+    @Benchmark
+    @Group("perCellUnderWrites")
+    @GroupThreads(3)
+    public int perCellReader(Torn torn) {
+        return scan(null, torn);
+    }
+
+    @Benchmark
+    @Group("perCellUnderWrites")
+    @GroupThreads(1)
+    public int perCellWriter(Writer writer) {
+        return write(writer);
+    }
+
+    @Benchmark
+    @Group("snapshotUnderWrites")
+    @GroupThreads(3)
+    public int snapshotReader(Reader reader, Torn torn) {
+        long v = board.snapshot(reader.cells, reader.version);
+        if (v != GameBoard.UNCHANGED) reader.version = v;
+        return scan(reader.cells, torn);   // unchanged or not, the copy is what the reader sees
+    }
+
+    @Benchmark
+    @Group("snapshotUnderWrites")
+    @GroupThreads(1)
+    public int snapshotWriter(Writer writer) {
+        return write(writer);
+    }
+
+    //Reads every cell (getCell, or from a snapshot) and counts the position if no game can
+    //reach it: a disc above an empty cell, or disc counts off by more than one.
+    private int scan(long[] snapshot, Torn torn) {
+        int ones = 0, twos = 0, torns = 0;
+        for (int c = 0; c < cols; c++) {
+            boolean empty = false;
+            for (int r = rows - 1; r >= 0; r--) {
+                int v = snapshot == null ? board.getCell(r, c) : GameBoard.cellOf(snapshot, cols, r, c);
+                if (v == 0) empty = true;
+                else if (empty) torns = 1;   // floating disc
+                if (v == 1) ones++;
+                if (v == 2) twos++;
+            }
+        }
+        if (ones - twos < 0 || ones - twos > 1) torns = 1;
+        torn.torn += torns;
+        return ones + twos;
+    }
+
+    //Player 1 opens, players alternate, every drop lands: any consistent read is a real position.
+    private int write(Writer w) {
+        if (w.discs == rows * cols) {
+            board.clear();
+            Arrays.fill(w.heights, 0);
+            w.discs = 0;
+        }
+        int col = w.next;
+        while (w.heights[col] == rows) col = col + 1 == cols ? 0 : col + 1;
+        w.next = col + 3 >= cols ? col + 3 - cols : col + 3;
+        w.heights[col]++;
+        return board.drop(1 + (w.discs++ & 1), col);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(SnapshotBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
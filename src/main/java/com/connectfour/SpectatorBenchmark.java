@@ -0,0 +1,141 @@
+package com.connectfour;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test: move latency as the number of spectators grows (the read-heavy scenario).
+ *
+ * A game thread plays moves at a fixed rate under a move lock. Every spectator is a real
+ * loopback connection with its own OutboundQueue; all client ends are drained by one
+ * NIO selector thread so thousands of spectators do not need thousands of reader threads.
+ *
+ * Modes:
+ * - inline: the old broadcast style, one send(String) per spectator inside the move lock
+ *           (each recipient re-encodes the line)
+ * - hub:    the move encodes once and hands the frame to SpectatorHub, which fans out
+ *           on the writer pool outside the move lock
+ *
+ * Usage: java com.connectfour.SpectatorBenchmark [movesPerSec] [seconds] [spectatorCounts...]
+ * 10k spectators need ~20k file descriptors in this process (ulimit -n).
+ */
+public class SpectatorBenchmark {
+    public static void main(String[] args) throws Exception {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int[] levels = {0, 10, 100, 1000, 5000, 10000};
+        if (args.length > 2) {
+            levels = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) levels[i - 2] = Integer.parseInt(args[i]);
+        }
+
+        System.out.println("=== Move Latency vs Spectators ===");
+        System.out.printf("Target: %d moves/sec for %ds per run%n%n", rate, seconds);
+        System.out.printf("%-11s %-7s %12s %14s   %s%n", "Spectators", "Mode", "moves/sec", "MB/s delivered", "move latency");
+        for (int n : levels) {
+            ExecutorService writers = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+            List<Socket> sockets = new ArrayList<>();
+            List<OutboundQueue> queues = new ArrayList<>();
+            AtomicLong bytes = new AtomicLong();
+            Selector selector = Selector.open();
+            Thread drainer = null;
+            try (ServerSocket ss = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress())) {
+                for (int i = 0; i < n; i++) {
+                    SocketChannel client = SocketChannel.open(ss.getLocalSocketAddress());
+                    client.configureBlocking(false);
+                    client.register(selector, SelectionKey.OP_READ);
+                    Socket server = ss.accept();
+                    sockets.add(server);
+                    queues.add(new OutboundQueue(new BufferedOutputStream(server.getOutputStream()),
+                            16, OutboundQueue.SlowConsumerPolicy.COLLAPSE, writers, () -> {}));
+                }
+                drainer = startDrainer(selector, bytes);
+                for (String mode : new String[] {"inline", "hub"}) {
+                    run(n, mode, queues, writers, rate, seconds, bytes);
+                }
+            } catch (IOException e) {
+                System.out.printf("%-11d could not open connections (%s); raise ulimit -n%n", n, e.getMessage());
+            } finally {
+                for (OutboundQueue q : queues) q.close();
+                for (Socket s : sockets) try { s.close(); } catch (IOException ignored) {}
+                if (drainer != null) drainer.interrupt();
+                for (SelectionKey k : selector.keys()) try { k.channel().close(); } catch (IOException ignored) {}
+                selector.close();
+                writers.shutdownNow();
+            }
+        }
+    }
+
+    private static void run(int n, String mode, List<OutboundQueue> queues, ExecutorService writers, int rate,
+                            int seconds, AtomicLong bytes) {
+        SpectatorHub hub = new SpectatorHub(1024, writers);
+        if (mode.equals("hub")) for (OutboundQueue q : queues) hub.subscribe(q);
+
+        Object moveLock = new Object();
+        Board board = new Board();
+        LatencyHistogram hist = new LatencyHistogram();
+        long interval = 1_000_000_000L / rate;
+        long bytesBefore = bytes.get();
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long moves = 0;
+        for (long scheduled = start; scheduled < end; scheduled += interval) {
+            long now;
+            while ((now = System.nanoTime()) < scheduled) LockSupport.parkNanos(scheduled - now);
+            synchronized (moveLock) {
+                if (board.drop((int) (moves % 2) + 1, (int) (moves % Board.COLS)) < 0) board.clear();
+                String msg = "BOARD:" + board.serialize();
+                if (mode.equals("hub")) {
+                    hub.publish(OutboundQueue.encode(msg), true);
+                } else {
+                    for (OutboundQueue q : queues) q.offer(msg);
+                }
+            }
+            hist.record(System.nanoTime() - scheduled);
+            moves++;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        hub.stop();
+        double mb = (bytes.get() - bytesBefore) / elapsed / (1024 * 1024);
+        System.out.printf("%-11d %-7s %,12.0f %14.1f   %s%n", n, mode, moves / elapsed, mb, hist.summary());
+    }
+
+    //One thread reads (and discards) everything every spectator receives.
+    private static Thread startDrainer(Selector selector, AtomicLong bytes) {
+        Thread t = new Thread(() -> {
+            ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    if (selector.select(100) == 0) continue;
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        SocketChannel ch = (SocketChannel) key.channel();
+                        int r;
+                        while ((r = ch.read(buf)) > 0) {
+                            bytes.addAndGet(r);
+                            buf.clear();
+                        }
+                        if (r < 0) key.cancel();
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException ignored) {
+            }
+        }, "SpectatorDrainer");
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+}
@@ -0,0 +1,87 @@
+package com.connectfour;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Read-only fan-out of one game's updates to any number of spectators.
+ *
+ * HOW IT WORKS:
+ * - The game encodes each update ONCE (OutboundQueue.encode) and calls publish(), which is
+ *   a non-blocking offer into a small hand-off queue; the move lock is released right away.
+ * - The first publish on an idle hub schedules one fan-out task on the given executor (the
+ *   server's shared writer pool), like an OutboundQueue drain. The task offers each frame
+ *   to every spectator's OutboundQueue until the hand-off queue is empty, then ends.
+ *   No per-recipient String building, encoding or copying, no game lock held, and no
+ *   thread at all while the game has no spectators.
+ * - At most one fan-out task runs at a time, so spectators see updates in order.
+ * - The latest BOARD frame is remembered so new spectators see the position immediately.
+ * - If the fan-out falls behind and the hand-off queue is full, or the executor refuses the
+ *   task, the update is dropped: spectators get the next BOARD, which is a full snapshot anyway.
+ */
+public class SpectatorHub {
+    private final Set<OutboundQueue> subscribers = ConcurrentHashMap.newKeySet();
+    private final ArrayBlockingQueue<byte[]> handoff;
+    private final Executor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile byte[] latestBoard;
+    private volatile boolean running = true;
+    private volatile long droppedUpdates;
+
+    public SpectatorHub(int handoffCapacity, Executor executor) {
+        this.handoff = new ArrayBlockingQueue<>(handoffCapacity);
+        this.executor = executor;
+    }
+
+    public void subscribe(OutboundQueue spectator) {
+        subscribers.add(spectator);
+        byte[] board = latestBoard;
+        if (board != null) spectator.offer(board);
+    }
+
+    public void unsubscribe(OutboundQueue spectator) {
+        subscribers.remove(spectator);
+    }
+
+    //Called by the game (possibly under its move lock). Never blocks.
+    public void publish(byte[] frame, boolean isBoard) {
+        if (isBoard) latestBoard = frame;
+        if (subscribers.isEmpty() || !running) return;
+        if (!handoff.offer(frame)) {
+            droppedUpdates++;
+            return;
+        }
+        if (!scheduled.compareAndSet(false, true)) return;   // the running task will see it
+        try {
+            executor.execute(this::fanout);
+        } catch (RejectedExecutionException e) {
+            droppedUpdates += handoff.size();                 // writers saturated or shut down
+            handoff.clear();
+            scheduled.set(false);
+        }
+    }
+
+    private void fanout() {
+        while (true) {
+            byte[] frame;
+            while ((frame = handoff.poll()) != null) {
+                for (OutboundQueue q : subscribers) q.offer(frame);
+            }
+            scheduled.set(false);
+            // a publish between the last poll and the reset left its frame for us
+            if (handoff.isEmpty() || !scheduled.compareAndSet(false, true)) return;
+        }
+    }
+
+    public void stop() {
+        running = false;
+        handoff.clear();
+    }
+
+    public int size() { return subscribers.size(); }
+    public long droppedUpdates() { return droppedUpdates; }
+}
@@ -0,0 +1,105 @@
+package com.connectfour;
+
+import org.apache.commons.math3.distribution.TDistribution;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+
+/**
+ * Runs a throughput measurement until the numbers can be trusted, instead of a fixed op count.
+ *
+ * HOW IT WORKS:
+ * - WARMUP: repeat the iteration until the last WARMUP_WINDOW scores vary by less than
+ *   warmupCv (coefficient of variation), i.e. the JIT and caches have settled; capped by
+ *   MAX_WARMUP iterations.
+ * - MEASURE: repeat until the 95% confidence interval of the mean (Student's t, via
+ *   commons-math3) is narrower than targetRelativeCi of the mean, with at least
+ *   MIN_ITERATIONS and at most MAX_ITERATIONS / maxMeasureMillis.
+ * The Result carries the mean, the CI half-width and both iteration counts, so every
+ * reported number says how sure it is.
+ */
+public class SteadyState {
+    private static final int WARMUP_WINDOW = 3;
+    private static final int MAX_WARMUP = 20;
+    private static final int MIN_ITERATIONS = 5;
+    private static final int MAX_ITERATIONS = 40;
+    private static final double CONFIDENCE = 0.95;
+
+    //One iteration; returns its throughput (ops/sec).
+    public interface Iteration {
+        double run() throws Exception;
+    }
+
+    //Sees every iteration as it completes (e.g. to stream it).
+    public interface Listener {
+        void iteration(int iteration, boolean warmup, double score);
+    }
+
+    public static final class Result {
+        public final double mean, ciHalfWidth;
+        public final int iterations, warmupIterations;
+        public final boolean converged;   // false: stopped by a cap before reaching the target CI
+
+        Result(double mean, double ciHalfWidth, int iterations, int warmupIterations, boolean converged) {
+            this.mean = mean;
+            this.ciHalfWidth = ciHalfWidth;
+            this.iterations = iterations;
+            this.warmupIterations = warmupIterations;
+            this.converged = converged;
+        }
+
+        public double relativeCi() {
+            return mean == 0 ? 0 : ciHalfWidth / mean;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,.0f ops/sec ± %,.0f (±%.1f%%, 95%% CI, %d iterations after %d warmup%s)",
+                    mean, ciHalfWidth, relativeCi() * 100, iterations, warmupIterations,
+                    converged ? "" : ", CI target not reached");
+        }
+    }
+
+    private final double warmupCv;
+    private final double targetRelativeCi;
+    private final long maxMeasureNanos;
+
+    public SteadyState(double warmupCv, double targetRelativeCi, long maxMeasureMillis) {
+        this.warmupCv = warmupCv;
+        this.targetRelativeCi = targetRelativeCi;
+        this.maxMeasureNanos = maxMeasureMillis * 1_000_000L;
+    }
+
+    public Result measure(Iteration iteration, Listener listener) throws Exception {
+        DescriptiveStatistics window = new DescriptiveStatistics(WARMUP_WINDOW);
+        int warmup = 0;
+        while (warmup < MAX_WARMUP) {
+            double score = iteration.run();
+            listener.iteration(++warmup, true, score);
+            window.addValue(score);
+            if (window.getN() == WARMUP_WINDOW && window.getStandardDeviation() <= warmupCv * window.getMean()) break;
+        }
+
+        SummaryStatistics stats = new SummaryStatistics();
+        long deadline = System.nanoTime() + maxMeasureNanos;
+        double half = Double.POSITIVE_INFINITY;
+        while (true) {
+            double score = iteration.run();
+            stats.addValue(score);
+            listener.iteration((int) stats.getN(), false, score);
+            int n = (int) stats.getN();
+            if (n >= 2) half = halfWidth(stats);
+            if (n >= MIN_ITERATIONS && half <= targetRelativeCi * stats.getMean()) {
+                return new Result(stats.getMean(), half, n, warmup, true);
+            }
+            if (n >= MAX_ITERATIONS || (n >= MIN_ITERATIONS && System.nanoTime() > deadline)) {
+                return new Result(stats.getMean(), half, n, warmup, false);
+            }
+        }
+    }
+
+    private static double halfWidth(SummaryStatistics stats) {
+        long n = stats.getN();
+        double t = new TDistribution(n - 1).inverseCumulativeProbability(1 - (1 - CONFIDENCE) / 2);
+        return t * stats.getStandardDeviation() / Math.sqrt(n);
+    }
+}
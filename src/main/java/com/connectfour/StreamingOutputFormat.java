@@ -0,0 +1,92 @@
+package com.connectfour;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.format.OutputFormat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JMH OutputFormat that reports every iteration as it finishes instead of only the final
+ * RunResults, so a long JMH run can be watched live (BenchmarkWebServer streams these to
+ * the page). Everything JMH would print goes to Listener.text unchanged.
+ *
+ * Benchmarks are named without class and "benchmark" prefix (ConnectFourBenchmark.benchmarkDrop
+ * becomes "Drop"); the implementation is the "impl" @Param, or "default" if there is none.
+ */
+public class StreamingOutputFormat implements OutputFormat {
+    public interface Listener {
+        void text(String s);
+
+        void iteration(String benchmark, String impl, int iteration, boolean warmup, double score, String unit);
+
+        //Final score of one benchmark/impl (mean over the measurement iterations).
+        void result(String benchmark, String impl, double score, String unit);
+    }
+
+    private final Listener listener;
+
+    public StreamingOutputFormat(Listener listener) {
+        this.listener = listener;
+    }
+
+    static String benchmarkName(BenchmarkParams params) {
+        String name = params.getBenchmark();
+        name = name.substring(name.lastIndexOf('.') + 1);
+        return name.startsWith("benchmark") ? name.substring("benchmark".length()) : name;
+    }
+
+    static String implName(BenchmarkParams params) {
+        String impl = params.getParamsKeys().contains("impl") ? params.getParam("impl") : null;
+        return impl != null ? impl : "default";
+    }
+
+    public void iteration(BenchmarkParams params, IterationParams iterParams, int iteration) {
+    }
+
+    public void iterationResult(BenchmarkParams params, IterationParams iterParams, int iteration, IterationResult data) {
+        boolean warmup = iterParams.getType() == IterationType.WARMUP;
+        listener.iteration(benchmarkName(params), implName(params), iteration, warmup,
+                data.getPrimaryResult().getScore(), data.getScoreUnit());
+        listener.text(String.format("%s %s %s %d: %.3f %s%n", benchmarkName(params), implName(params),
+                warmup ? "warmup" : "iteration", iteration, data.getPrimaryResult().getScore(), data.getScoreUnit()));
+    }
+
+    public void startBenchmark(BenchmarkParams params) {
+        listener.text(String.format("%n# %s  %s%n", params.getBenchmark(), params.getParamsKeys().isEmpty() ? ""
+                : "(" + String.join(", ", paramList(params)) + ")"));
+    }
+
+    private static List<String> paramList(BenchmarkParams params) {
+        List<String> list = new ArrayList<>();
+        for (String key : params.getParamsKeys()) list.add(key + "=" + params.getParam(key));
+        return list;
+    }
+
+    public void endBenchmark(BenchmarkResult result) {
+        if (result == null) return;   // the benchmark failed; JMH printed why
+        BenchmarkParams params = result.getParams();
+        listener.result(benchmarkName(params), implName(params),
+                result.getPrimaryResult().getScore(), result.getScoreUnit());
+    }
+
+    public void startRun() {
+    }
+
+    public void endRun(Collection<RunResult> results) {
+    }
+
+    public void print(String s) { listener.text(s); }
+    public void println(String s) { listener.text(s + System.lineSeparator()); }
+    public void verbosePrintln(String s) { }
+    public void flush() { }
+    public void close() { }
+    public void write(int b) { listener.text(String.valueOf((char) b)); }
+    public void write(byte[] b) { listener.text(new String(b)); }
+}
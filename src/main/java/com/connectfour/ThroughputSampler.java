@@ -0,0 +1,131 @@
+package com.connectfour;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Throughput as a time series instead of one average, with the GC and JIT activity that
+ * explains its dips.
+ *
+ * HOW IT WORKS:
+ * - Measured threads call add(n) as they go (a LongAdder, so no shared hot counter).
+ * - A sampler thread wakes every windowMillis and reports the ops done in that window as
+ *   ops/sec, plus the JIT compile time spent in the window (CompilationMXBean's cumulative
+ *   counter, differenced).
+ * - Every GarbageCollectorMXBean that emits notifications is subscribed to; each collection
+ *   is reported with its start time on the same clock and its duration.
+ * - mark(label) puts a named marker on the timeline (e.g. where a test starts).
+ * All times are milliseconds since start().
+ */
+public class ThroughputSampler {
+    public interface Listener {
+        void sample(long atMillis, double opsPerSec, long jitMillis);
+
+        void gc(long atMillis, long durationMillis, String collector, String cause);
+
+        void mark(long atMillis, String label);
+    }
+
+    private final long windowMillis;
+    private final Listener listener;
+    private final LongAdder ops = new LongAdder();
+    private final CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+    private final List<NotificationEmitter> subscribed = new ArrayList<>();
+    private final NotificationListener gcListener = this::onGc;
+    private long startNanos, startUptimeMillis;
+    private Thread thread;
+    private volatile boolean running;
+
+    public ThroughputSampler(long windowMillis, Listener listener) {
+        this.windowMillis = windowMillis;
+        this.listener = listener;
+    }
+
+    public void add(long n) {
+        ops.add(n);
+    }
+
+    public void mark(String label) {
+        listener.mark(elapsedMillis(), label);
+    }
+
+    public ThroughputSampler start() {
+        startNanos = System.nanoTime();
+        startUptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener(gcListener, null, null);
+                subscribed.add((NotificationEmitter) gc);
+            }
+        }
+        running = true;
+        thread = new Thread(this::sampleLoop, "ThroughputSampler");
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    //Reports the last, partial window and unsubscribes.
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join();
+        for (NotificationEmitter emitter : subscribed) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (Exception ignored) {
+            }
+        }
+        subscribed.clear();
+    }
+
+    private void sampleLoop() {
+        long lastNanos = startNanos;
+        long lastOps = ops.sum();
+        long lastJit = jitMillis();
+        while (true) {
+            try {
+                Thread.sleep(windowMillis);
+            } catch (InterruptedException e) {
+                // stop(): fall through and report what is left
+            }
+            long now = System.nanoTime();
+            long total = ops.sum();
+            long jitTotal = jitMillis();
+            if (now > lastNanos) {
+                listener.sample((now - startNanos) / 1_000_000, (total - lastOps) / ((now - lastNanos) / 1e9),
+                        jitTotal - lastJit);
+            }
+            lastNanos = now;
+            lastOps = total;
+            lastJit = jitTotal;
+            if (!running) return;
+        }
+    }
+
+    private long jitMillis() {
+        return jit != null && jit.isCompilationTimeMonitoringSupported() ? jit.getTotalCompilationTime() : 0;
+    }
+
+    private void onGc(Notification n, Object handback) {
+        if (!n.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) n.getUserData());
+        // GcInfo times are JVM uptime; put them on our clock
+        listener.gc(info.getGcInfo().getStartTime() - startUptimeMillis, info.getGcInfo().getDuration(),
+                info.getGcName(), info.getGcCause());
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,78 @@
+package com.connectfour;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free transposition table shared by all search threads of ConnectAI.
+ *
+ * Fixed capacity (power of two), one entry per slot, no chaining.
+ * Each entry is two longs: (key ^ data, data). A reader recomputes key from the pair
+ * and only trusts the entry if it matches, so a torn write from a racing thread just
+ * looks like a miss ("lockless hashing"). No locks, no CAS loops, no allocation.
+ *
+ * Replacement policy: an entry from an older search generation is always replaced;
+ * within the same generation the deeper search wins.
+ *
+ * data layout (low to high): score 16 | depth 8 | flag 2 | move 4 | generation 8
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 0, LOWER = 1, UPPER = 2;
+
+    private final AtomicLongArray slots;
+    private final int indexMask;
+    private volatile int generation;
+
+    public TranspositionTable(int log2Entries) {
+        int entries = 1 << log2Entries;
+        this.slots = new AtomicLongArray(entries * 2);
+        this.indexMask = entries - 1;
+    }
+
+    //Called once per root search so stale entries lose priority.
+    public void newSearch() {
+        generation = generation % 255 + 1; // 1..255, never 0
+    }
+
+    //Returns packed data for key, or 0 when missing (data is never 0 for a real entry).
+    public long probe(long key) {
+        int i = index(key);
+        long check = slots.get(i);
+        long data = slots.get(i + 1);
+        return (check ^ data) == key ? data : 0;
+    }
+
+    public void store(long key, int score, int depth, int flag, int move) {
+        int i = index(key);
+        long oldData = slots.get(i + 1);
+        if (oldData != 0 && generation(oldData) == generation && depth(oldData) > depth
+                && (slots.get(i) ^ oldData) != key) {
+            return; // keep the deeper entry from this search
+        }
+        long data = pack(score, depth, flag, move, generation);
+        slots.set(i, key ^ data);
+        slots.set(i + 1, data);
+    }
+
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return ((int) (h >>> 32) & indexMask) << 1;
+    }
+
+    private static long pack(int score, int depth, int flag, int move, int gen) {
+        return (score & 0xFFFFL)
+                | ((long) (depth & 0xFF) << 16)
+                | ((long) (flag & 0x3) << 24)
+                | ((long) ((move + 1) & 0xF) << 26)   // +1 so a stored entry is never all zero
+                | ((long) (gen & 0xFF) << 30);
+    }
+
+    public static int score(long data) { return (short) (data & 0xFFFF); }
+    public static int depth(long data) { return (int) (data >>> 16) & 0xFF; }
+    public static int flag(long data) { return (int) (data >>> 24) & 0x3; }
+    public static int move(long data) { return ((int) (data >>> 26) & 0xF) - 1; }
+    private static int generation(long data) { return (int) (data >>> 30) & 0xFF; }
+}